@@ -0,0 +1,78 @@
+package nova.bench;
+
+import nova.NovaException;
+import nova.Storage;
+import nova.task.Task;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Measures how much heap is saved by interning repeated task text on load.
+ *
+ * Usage: {@code java nova.bench.InternBenchmark [taskCount]}
+ */
+public class InternBenchmark {
+    private static final String[] DESCRIPTIONS = {"standup", "code review", "write report", "team sync", "deploy"};
+    private static final String[] DATES = {"2024-12-24", "2024-12-25", "2024-12-31", "2025-01-01"};
+
+    public static void main(String[] args) throws IOException, NovaException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        Path file = Files.createTempFile("nova-intern", ".txt");
+        try {
+            writeTasks(file, taskCount);
+            long plainBytes = measureLoad(new Storage(file.toString(), false));
+            long internedBytes = measureLoad(new Storage(file.toString(), true));
+            System.out.printf("tasks: %d%n", taskCount);
+            System.out.printf("heap without interning: %d KiB%n", plainBytes / 1024);
+            System.out.printf("heap with interning:    %d KiB%n", internedBytes / 1024);
+            System.out.printf("saved: %.1f%%%n", 100.0 * (plainBytes - internedBytes) / plainBytes);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writeTasks(Path file, int taskCount) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            for (int i = 0; i < taskCount; i++) {
+                String description = DESCRIPTIONS[i % DESCRIPTIONS.length];
+                String date = DATES[i % DATES.length];
+                switch (i % 3) {
+                case 0:
+                    writer.println("T | 0 | " + description);
+                    break;
+                case 1:
+                    writer.println("D | 0 | " + description + " | " + date);
+                    break;
+                default:
+                    writer.println("E | 1 | " + description + " | " + date + " | " + date);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the file and returns the heap retained by the loaded tasks.
+     */
+    private static long measureLoad(Storage storage) throws NovaException {
+        long before = usedHeap();
+        ArrayList<Task> tasks = storage.load();
+        long after = usedHeap();
+        if (tasks.isEmpty()) {
+            throw new IllegalStateException("No tasks loaded.");
+        }
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,226 @@
+package nova.bench;
+
+import nova.Nova;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Drives a synthetic workload through the whole command loop and reports
+ * throughput and latency percentiles per command type.
+ *
+ * Each generated command goes through {@link Nova#handle}, i.e. the parser, the
+ * command and the storage, against a data file in a temporary directory. Console
+ * output is discarded while the workload runs.
+ *
+ * Usage: {@code java nova.bench.LoadHarness [--ops N] [--initial N] [--desc-length N]
+ * [--mix todo=30,deadline=10,event=10,mark=20,delete=5,find=15,list=10] [--seed N] [--out file.json]}
+ */
+public class LoadHarness {
+    private static final String[] WORDS = {"report", "review", "standup", "deploy", "email", "design",
+        "budget", "plan", "sync", "read", "write", "fix", "test", "call", "meeting", "draft"};
+
+    private final Map<String, Integer> mix = new LinkedHashMap<>();
+    private final Map<String, long[]> latencies = new LinkedHashMap<>();
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+    private int operations = 10_000;
+    private int initialTasks = 1_000;
+    private int descriptionLength = 24;
+    private long seed = 42;
+    private String outputPath = "load-report.json";
+    private Random random;
+    private int taskCount;
+
+    public static void main(String[] args) throws IOException {
+        LoadHarness harness = new LoadHarness();
+        harness.parseArguments(args);
+        harness.run();
+    }
+
+    private void parseArguments(String[] args) {
+        String mixSpec = "todo=30,deadline=10,event=10,mark=20,delete=5,find=15,list=10";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+            case "--ops":
+                operations = Integer.parseInt(args[i + 1]);
+                break;
+            case "--initial":
+                initialTasks = Integer.parseInt(args[i + 1]);
+                break;
+            case "--desc-length":
+                descriptionLength = Integer.parseInt(args[i + 1]);
+                break;
+            case "--mix":
+                mixSpec = args[i + 1];
+                break;
+            case "--seed":
+                seed = Long.parseLong(args[i + 1]);
+                break;
+            case "--out":
+                outputPath = args[i + 1];
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        for (String entry : mixSpec.split(",")) {
+            String[] pair = entry.split("=");
+            mix.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+    }
+
+    private void run() throws IOException {
+        random = new Random(seed);
+        Path directory = Files.createTempDirectory("nova-load");
+        Path dataFile = directory.resolve("Nova.txt");
+        writeInitialTasks(dataFile);
+        taskCount = initialTasks;
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long totalNanos;
+        try {
+            Nova nova = new Nova(dataFile.toString());
+            long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                String type = pickType();
+                if ((type.equals("mark") || type.equals("delete")) && taskCount == 0) {
+                    type = "todo";
+                }
+                String command = generate(type);
+                long before = System.nanoTime();
+                nova.handle(command);
+                record(type, System.nanoTime() - before);
+            }
+            totalNanos = System.nanoTime() - start;
+        } finally {
+            System.setOut(console);
+            deleteRecursively(directory);
+        }
+        writeReport(totalNanos);
+        System.out.println("Wrote " + operations + " operations to " + outputPath);
+    }
+
+    private void writeInitialTasks(Path dataFile) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(dataFile))) {
+            for (int i = 0; i < initialTasks; i++) {
+                writer.println("T | " + (i % 4 == 0 ? 1 : 0) + " | " + description());
+            }
+        }
+    }
+
+    private String pickType() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty workload mix.");
+    }
+
+    /**
+     * Generates one command of the given type, keeping track of the list size.
+     */
+    private String generate(String type) {
+        switch (type) {
+        case "todo":
+            taskCount++;
+            return "todo " + description();
+        case "deadline":
+            taskCount++;
+            return "deadline " + description() + " /by 2024-12-" + (10 + random.nextInt(20));
+        case "event":
+            taskCount++;
+            return "event " + description() + " /from 2024-12-01 10:00 /to 2024-12-01 12:00";
+        case "mark":
+            return (random.nextBoolean() ? "mark " : "unmark ") + (1 + random.nextInt(taskCount));
+        case "delete":
+            return "delete " + (1 + random.nextInt(taskCount--));
+        case "find":
+            return "find " + WORDS[random.nextInt(WORDS.length)];
+        case "list":
+            return "list";
+        default:
+            throw new IllegalArgumentException("Unknown command type in mix: " + type);
+        }
+    }
+
+    private String description() {
+        StringBuilder description = new StringBuilder();
+        while (description.length() < descriptionLength) {
+            if (description.length() > 0) {
+                description.append(' ');
+            }
+            description.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+
+    private void record(String type, long nanos) {
+        long[] samples = latencies.computeIfAbsent(type, t -> new long[64]);
+        int count = counts.getOrDefault(type, 0);
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+            latencies.put(type, samples);
+        }
+        samples[count] = nanos;
+        counts.put(type, count + 1);
+    }
+
+    private void writeReport(long totalNanos) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(outputPath)))) {
+            writer.println("{");
+            writer.printf(Locale.ROOT, "  \"operations\": %d,%n", operations);
+            writer.printf(Locale.ROOT, "  \"initialTasks\": %d,%n", initialTasks);
+            writer.printf(Locale.ROOT, "  \"descriptionLength\": %d,%n", descriptionLength);
+            writer.printf(Locale.ROOT, "  \"totalSeconds\": %.3f,%n", totalNanos / 1e9);
+            writer.printf(Locale.ROOT, "  \"throughputOpsPerSecond\": %.1f,%n", operations / (totalNanos / 1e9));
+            writer.println("  \"commands\": {");
+            int written = 0;
+            for (Map.Entry<String, long[]> entry : latencies.entrySet()) {
+                int count = counts.get(entry.getKey());
+                long[] samples = Arrays.copyOf(entry.getValue(), count);
+                Arrays.sort(samples);
+                long sum = Arrays.stream(samples).sum();
+                writer.printf(Locale.ROOT, "    \"%s\": {\"count\": %d, \"opsPerSecond\": %.1f, \"meanMicros\": %.1f, "
+                        + "\"p50Micros\": %.1f, \"p99Micros\": %.1f, \"p999Micros\": %.1f, \"maxMicros\": %.1f}%s%n",
+                        entry.getKey(), count, count / (sum / 1e9), sum / 1e3 / count,
+                        percentile(samples, 0.50), percentile(samples, 0.99), percentile(samples, 0.999),
+                        samples[count - 1] / 1e3, ++written < latencies.size() ? "," : "");
+            }
+            writer.println("  }");
+            writer.println("}");
+        }
+    }
+
+    /**
+     * Returns the nearest-rank percentile of sorted samples, in microseconds.
+     */
+    private static double percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e3;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package nova.bench;
+
+import nova.Ui;
+import nova.task.Deadline;
+import nova.task.Event;
+import nova.task.Task;
+import nova.task.Todo;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+/**
+ * Compares the allocation per listed row of the cached Ui path against
+ * re-rendering and {@code printf}-formatting every row.
+ *
+ * Each path lists its own copy of the tasks, so invalidating the caches for the
+ * uncached path does not make the cached path re-render.
+ *
+ * Usage: {@code java nova.bench.RenderBenchmark [taskCount] [rounds]}
+ */
+public class RenderBenchmark {
+
+    public static void main(String[] args) {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        ArrayList<Task> uncachedTasks = createTasks(taskCount);
+        ArrayList<Task> cachedTasks = createTasks(taskCount);
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Ui ui = new Ui();
+        for (int i = 0; i < 3; i++) {
+            listUncached(uncachedTasks);
+            ui.showTaskList(cachedTasks);
+        }
+        long uncachedBytes = 0;
+        long cachedBytes = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = allocatedBytes();
+            listUncached(uncachedTasks);
+            long middle = allocatedBytes();
+            ui.showTaskList(cachedTasks);
+            long end = allocatedBytes();
+            uncachedBytes += middle - start;
+            cachedBytes += end - middle;
+        }
+        System.setOut(console);
+
+        long rows = (long) taskCount * rounds;
+        System.out.printf("rows listed per path: %d%n", rows);
+        System.out.printf("re-render + printf: %.1f bytes allocated per row%n", (double) uncachedBytes / rows);
+        System.out.printf("cached bytes + buffer: %.1f bytes allocated per row%n", (double) cachedBytes / rows);
+    }
+
+    private static ArrayList<Task> createTasks(int taskCount) {
+        ArrayList<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            switch (i % 3) {
+            case 0:
+                tasks.add(new Todo("read chapter " + i));
+                break;
+            case 1:
+                tasks.add(new Deadline("submit report " + i, "by: 2024-12-24"));
+                break;
+            default:
+                tasks.add(new Event("team meeting " + i, "from: Monday 2pm", "to: Monday 4pm"));
+                break;
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Lists tasks the way {@code Ui} did before rendering was cached.
+     */
+    private static void listUncached(ArrayList<Task> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            task.markAsDone(task.isDone);
+            System.out.printf(" %d. %s%n", i + 1, task);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,560 @@
+package nova;
+
+import nova.task.Task;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A storage that keeps task records in compressed blocks.
+ *
+ * Records are grouped into blocks of up to {@value #BLOCK_RECORDS} lines, and each
+ * block is compressed on its own with {@link Deflater}. A footer at the end of the
+ * file lists every block's offset, sizes and the index of its first task, so blocks
+ * can be decompressed in parallel on load and a range of tasks can be read by
+ * decompressing only the blocks that hold it.
+ *
+ * The file starts with a 4-byte magic number and ends with the footer offset followed
+ * by a second magic number. Appends never overwrite bytes already in the file: the new
+ * blocks and a new footer are written after the current end, and the trailer that
+ * points at the footer is written last, so a crash part way through leaves the previous
+ * trailer to load from. A partly filled last block is merged into the new one, so the
+ * blocks stay full. The superseded blocks and footers are reclaimed by the next
+ * {@link #save}, or by compacting the file once they outweigh the live data.
+ */
+public class CompressedStorage extends Storage {
+    static final int BLOCK_RECORDS = 256;
+
+    private static final int HEADER_MAGIC = 0x4E565A31;
+    private static final int FOOTER_MAGIC = 0x4E565A46;
+    private static final int TRAILER_SIZE = 12;
+    private static final int ENTRY_SIZE = 24;
+    private static final int MIN_COMPACT_WASTE = 64 * 1024;
+    private static final int SCAN_CHUNK = 64 * 1024;
+
+    private final Path path;
+
+    /**
+     * The location and contents of one compressed block.
+     */
+    private static class Block {
+        private final long offset;
+        private final int compressedLength;
+        private final int rawLength;
+        private final int firstTask;
+        private final int recordCount;
+
+        Block(long offset, int compressedLength, int rawLength, int firstTask, int recordCount) {
+            this.offset = offset;
+            this.compressedLength = compressedLength;
+            this.rawLength = rawLength;
+            this.firstTask = firstTask;
+            this.recordCount = recordCount;
+        }
+    }
+
+    /**
+     * The block index read from the footer.
+     */
+    private static class Footer {
+        private final List<Block> blocks;
+
+        Footer(List<Block> blocks) {
+            this.blocks = blocks;
+        }
+
+        int taskCount() {
+            if (blocks.isEmpty()) {
+                return 0;
+            }
+            Block last = blocks.get(blocks.size() - 1);
+            return last.firstTask + last.recordCount;
+        }
+    }
+
+    /**
+     * Constructs a new CompressedStorage instance that shares repeated task text in memory.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     */
+    public CompressedStorage(String filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * Constructs a new CompressedStorage instance.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param isInterning Whether repeated descriptions and dates should be stored only once in memory.
+     */
+    public CompressedStorage(String filePath, boolean isInterning) {
+        super(filePath, isInterning);
+        this.path = Paths.get(filePath);
+    }
+
+    @Override
+    public SharedFile enableSharing(TaskList tasks) throws NovaException {
+        throw new NovaException("Only plain-text task files can be shared.");
+    }
+
+    @Override
+    public ArrayList<Task> load() throws NovaException {
+        try {
+            createDirectories();
+            ArrayList<Task> tasks = new ArrayList<>();
+            if (!Files.exists(path) || Files.size(path) == 0) {
+                return tasks;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                for (CompletableFuture<List<Task>> block : decodeAll(channel, readFooter(channel, channel.size()))) {
+                    tasks.addAll(join(block));
+                }
+            }
+            return tasks;
+        } catch (IOException e) {
+            throw new NovaException("Error loading tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decompresses the blocks in parallel and publishes them in file order.
+     */
+    @Override
+    protected void loadRecords(File file, long length, TaskList tasks) throws IOException, NovaException {
+        if (length == 0) {
+            tasks.setExpectedCount(0);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Footer footer = readFooter(channel, length);
+            tasks.setExpectedCount(footer.taskCount());
+            for (CompletableFuture<List<Task>> block : decodeAll(channel, footer)) {
+                tasks.addLoadedTasks(join(block));
+            }
+        }
+    }
+
+    /**
+     * Reads a range of tasks, decompressing only the blocks that hold it.
+     *
+     * @return The tasks in the range, or null if the file holds fewer than {@code to} tasks.
+     */
+    @Override
+    public synchronized List<Task> readTasks(int from, int to) throws NovaException {
+        if (from < 0 || from > to) {
+            throw new NovaException("There is no task " + (from + 1) + " in the file.");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Footer footer = readFooter(channel, channel.size());
+            if (to > footer.taskCount()) {
+                return null;
+            }
+            List<Block> blocks = footer.blocks;
+            int low = 0;
+            int high = blocks.size() - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (blocks.get(middle).firstTask <= from) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            List<Task> tasks = new ArrayList<>(to - from);
+            for (int i = low; i < blocks.size() && tasks.size() < to - from; i++) {
+                Block block = blocks.get(i);
+                List<String> records = readRecords(channel, block);
+                int start = Math.max(from, block.firstTask) - block.firstTask;
+                int end = Math.min(to, block.firstTask + block.recordCount) - block.firstTask;
+                for (String record : records.subList(start, end)) {
+                    tasks.add(parseTask(record));
+                }
+            }
+            return tasks;
+        } catch (IOException e) {
+            throw new NovaException("Error loading tasks: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void save(ArrayList<Task> tasks) throws NovaException {
+        ArrayList<String> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(formatTask(task));
+        }
+        try {
+            createDirectories();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, ByteBuffer.allocate(4).putInt(0, HEADER_MAGIC), 0);
+                List<Block> blocks = new ArrayList<>();
+                long end = writeBlocks(channel, 4, records, 0, blocks);
+                writeFooter(channel, end, blocks);
+            }
+        } catch (IOException e) {
+            throw new NovaException("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens a writer that appends records to the storage file.
+     *
+     * Records are compressed a block at a time as they are written, and the rest when the writer is closed.
+     */
+    @Override
+    protected BufferedWriter openWriter() throws NovaException {
+        try {
+            createDirectories();
+        } catch (IOException e) {
+            throw new NovaException("Error saving tasks: " + e.getMessage());
+        }
+        return new BufferedWriter(new BlockWriter());
+    }
+
+    /**
+     * Collects the lines written by {@link #writeTask} and appends them a block at a time.
+     */
+    private class BlockWriter extends Writer {
+        private final StringBuilder line = new StringBuilder();
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                char c = buffer[i];
+                if (c == '\n') {
+                    records.add(line.toString());
+                    line.setLength(0);
+                    if (records.size() == BLOCK_RECORDS) {
+                        flush();
+                    }
+                } else if (c != '\r') {
+                    line.append(c);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!records.isEmpty()) {
+                appendRecords(records);
+                records.clear();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (line.length() > 0) {
+                records.add(line.toString());
+                line.setLength(0);
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Appends records after the end of the file, followed by a footer listing every block.
+     *
+     * Nothing already in the file is overwritten, so a load reading the old blocks, or a
+     * crash before the new trailer is written, still sees a complete file.
+     */
+    private synchronized void appendRecords(List<String> records) throws IOException {
+        List<Block> blocks = new ArrayList<>();
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = channel.size();
+            List<String> pending = records;
+            if (position == 0) {
+                writeFully(channel, ByteBuffer.allocate(4).putInt(0, HEADER_MAGIC), 0);
+                position = 4;
+            } else {
+                blocks.addAll(readFooter(channel, position).blocks);
+                if (!blocks.isEmpty() && blocks.get(blocks.size() - 1).recordCount < BLOCK_RECORDS) {
+                    Block last = blocks.remove(blocks.size() - 1);
+                    pending = new ArrayList<>(readRecords(channel, last));
+                    pending.addAll(records);
+                }
+            }
+            int firstTask = blocks.isEmpty() ? 0 : blocks.get(blocks.size() - 1).firstTask
+                    + blocks.get(blocks.size() - 1).recordCount;
+            long end = writeBlocks(channel, position, pending, firstTask, blocks);
+            size = writeFooter(channel, end, blocks);
+        }
+        long live = 4 + 4 + (long) blocks.size() * ENTRY_SIZE + TRAILER_SIZE;
+        for (Block block : blocks) {
+            live += block.compressedLength;
+        }
+        if (size - live > Math.max(live, MIN_COMPACT_WASTE)) {
+            compact(blocks);
+        }
+    }
+
+    /**
+     * Copies the live blocks into a new file and moves it over the old one.
+     *
+     * The blocks are copied as they are, without decompressing them. A load that has
+     * the old file open keeps reading it until it finishes.
+     */
+    private void compact(List<Block> blocks) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+                FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(target, ByteBuffer.allocate(4).putInt(0, HEADER_MAGIC), 0);
+            List<Block> moved = new ArrayList<>(blocks.size());
+            long position = 4;
+            for (Block block : blocks) {
+                writeFully(target, readFully(source, block.offset, block.compressedLength), position);
+                moved.add(new Block(position, block.compressedLength, block.rawLength,
+                        block.firstTask, block.recordCount));
+                position += block.compressedLength;
+            }
+            writeFooter(target, position, moved);
+            target.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Compresses the records into consecutive blocks starting at the given position.
+     *
+     * @return The position after the last block.
+     */
+    private long writeBlocks(FileChannel channel, long position, List<String> records, int firstTask,
+            List<Block> blocks) throws IOException {
+        Deflater deflater = new Deflater();
+        try {
+            for (int from = 0; from < records.size(); from += BLOCK_RECORDS) {
+                int to = Math.min(records.size(), from + BLOCK_RECORDS);
+                StringBuilder text = new StringBuilder();
+                for (String record : records.subList(from, to)) {
+                    text.append(record).append('\n');
+                }
+                byte[] raw = text.toString().getBytes(StandardCharsets.UTF_8);
+                deflater.reset();
+                deflater.setInput(raw);
+                deflater.finish();
+                byte[] compressed = new byte[raw.length / 2 + 64];
+                int length = 0;
+                while (!deflater.finished()) {
+                    if (length == compressed.length) {
+                        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                    }
+                    length += deflater.deflate(compressed, length, compressed.length - length);
+                }
+                writeFully(channel, ByteBuffer.wrap(compressed, 0, length), position);
+                blocks.add(new Block(position, length, raw.length, firstTask + from, to - from));
+                position += length;
+            }
+        } finally {
+            deflater.end();
+        }
+        return position;
+    }
+
+    /**
+     * Writes the block index and trailer at the given position.
+     *
+     * The index and the blocks before it are forced to disk before the trailer is
+     * written, so a trailer is never found pointing at data that was lost.
+     *
+     * @return The new length of the file.
+     */
+    private long writeFooter(FileChannel channel, long position, List<Block> blocks) throws IOException {
+        ByteBuffer index = ByteBuffer.allocate(4 + blocks.size() * ENTRY_SIZE);
+        index.putInt(blocks.size());
+        for (Block block : blocks) {
+            index.putLong(block.offset).putInt(block.compressedLength).putInt(block.rawLength)
+                    .putInt(block.firstTask).putInt(block.recordCount);
+        }
+        index.flip();
+        writeFully(channel, index, position);
+        channel.force(false);
+        long trailerOffset = position + index.capacity();
+        writeFully(channel, ByteBuffer.allocate(TRAILER_SIZE).putLong(0, position).putInt(8, FOOTER_MAGIC),
+                trailerOffset);
+        return trailerOffset + TRAILER_SIZE;
+    }
+
+    /**
+     * Reads the block index of a file whose first {@code length} bytes are valid.
+     *
+     * If the file does not end with a trailer, as after a crash part way through an
+     * append, the last complete trailer before the end is used instead.
+     */
+    private Footer readFooter(FileChannel channel, long length) throws IOException {
+        if (length < 4 + TRAILER_SIZE || readFully(channel, 0, 4).getInt() != HEADER_MAGIC) {
+            throw new IOException("The task file is not in the compressed format.");
+        }
+        Footer footer = readFooterAt(channel, length);
+        if (footer != null) {
+            return footer;
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_CHUNK + TRAILER_SIZE);
+        long end = length - 1;
+        while (end >= 4 + TRAILER_SIZE) {
+            // Chunks overlap, so a magic number is never split between two reads.
+            long start = Math.max(0, end - SCAN_CHUNK);
+            chunk.clear().limit((int) Math.min(chunk.capacity(), length - start));
+            while (chunk.hasRemaining() && channel.read(chunk, start + chunk.position()) >= 0) {
+                // Keep reading until the buffer is full.
+            }
+            for (long candidate = end; candidate > start && candidate >= 4 + TRAILER_SIZE; candidate--) {
+                int at = (int) (candidate - start);
+                if (at >= 4 && chunk.getInt(at - 4) == FOOTER_MAGIC) {
+                    footer = readFooterAt(channel, candidate);
+                    if (footer != null) {
+                        return footer;
+                    }
+                }
+            }
+            end = start;
+        }
+        throw new IOException("The compressed task file is truncated or has no block index.");
+    }
+
+    /**
+     * Reads the block index whose trailer ends at {@code end}, or returns null if there is none.
+     */
+    private static Footer readFooterAt(FileChannel channel, long end) throws IOException {
+        ByteBuffer trailer = readFully(channel, end - TRAILER_SIZE, TRAILER_SIZE);
+        long offset = trailer.getLong();
+        if (trailer.getInt() != FOOTER_MAGIC || offset < 4 || offset > end - TRAILER_SIZE - 4) {
+            return null;
+        }
+        ByteBuffer index = readFully(channel, offset, (int) (end - TRAILER_SIZE - offset));
+        int count = index.getInt();
+        if (count < 0 || index.remaining() != (long) count * ENTRY_SIZE) {
+            return null;
+        }
+        List<Block> blocks = new ArrayList<>(count);
+        int nextTask = 0;
+        for (int i = 0; i < count; i++) {
+            Block block = new Block(index.getLong(), index.getInt(), index.getInt(), index.getInt(), index.getInt());
+            if (block.offset < 4 || block.offset + block.compressedLength > offset || block.compressedLength < 0
+                    || block.rawLength < 0 || block.firstTask != nextTask || block.recordCount <= 0) {
+                return null;
+            }
+            nextTask += block.recordCount;
+            blocks.add(block);
+        }
+        return new Footer(blocks);
+    }
+
+    /**
+     * Starts decompressing and parsing every block on the common pool.
+     */
+    private List<CompletableFuture<List<Task>>> decodeAll(FileChannel channel, Footer footer) {
+        List<CompletableFuture<List<Task>>> decoded = new ArrayList<>(footer.blocks.size());
+        for (Block block : footer.blocks) {
+            decoded.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    List<Task> tasks = new ArrayList<>(block.recordCount);
+                    for (String record : readRecords(channel, block)) {
+                        tasks.add(parseTask(record));
+                    }
+                    return tasks;
+                } catch (IOException | NovaException e) {
+                    throw new CompletionException(e);
+                }
+            }));
+        }
+        return decoded;
+    }
+
+    private static List<Task> join(CompletableFuture<List<Task>> block) throws IOException, NovaException {
+        try {
+            return block.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof NovaException) {
+                throw (NovaException) e.getCause();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Decompresses one block into its record lines.
+     */
+    private static List<String> readRecords(FileChannel channel, Block block) throws IOException {
+        ByteBuffer compressed = readFully(channel, block.offset, block.compressedLength);
+        byte[] raw = new byte[block.rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.array());
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != raw.length) {
+                throw new IOException("The compressed task file has a truncated block.");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("The compressed task file has a corrupted block.");
+        } finally {
+            inflater.end();
+        }
+        List<String> records = new ArrayList<>(block.recordCount);
+        int start = 0;
+        for (int i = 0; i < raw.length; i++) {
+            if (raw[i] == '\n') {
+                records.add(new String(raw, start, i - start, StandardCharsets.UTF_8));
+                start = i + 1;
+            }
+        }
+        if (records.size() != block.recordCount) {
+            throw new IOException("The compressed task file has a corrupted block.");
+        }
+        return records;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("The compressed task file is truncated.");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private void createDirectories() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+}
@@ -13,6 +13,7 @@ public class Nova {
 
     private Storage storage;
     private TaskList tasks;
+    private TaskHistory history;
     private Ui ui;
     private Parser parser;
 
@@ -22,14 +23,43 @@ public class Nova {
      * @param filePath The path to the file where tasks are stored.
      */
     public Nova(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructs a new Nova instance, optionally sharing its data file with other Nova processes.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param isShared Whether other processes may write to the file at the same time.
+     */
+    public Nova(String filePath, boolean isShared) {
         ui = new Ui();
-        storage = new Storage(filePath);
+        storage = Storage.open(filePath);
         parser = new Parser();
+        tasks = new TaskList();
+        storage.loadInBackground(tasks, ui);
+        history = storage.enableHistory(tasks);
+        tasks.addListener(history);
+        tasks.addListener(storage.enableDependencies(tasks));
+        if (isShared) {
+            try {
+                storage.enableSharing(tasks).start();
+            } catch (NovaException e) {
+                ui.showError(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Streams every mutation of the task list to followers connecting on the given port.
+     *
+     * @param port The local port followers connect to.
+     */
+    public void replicateTo(int port) {
         try {
-            tasks = new TaskList(storage.load());
+            new ReplicationPrimary(tasks, storage, port).start();
         } catch (NovaException e) {
-            ui.showLoadingError(e.getMessage());
-            tasks = new TaskList();
+            ui.showError(e.getMessage());
         }
     }
 
@@ -43,26 +73,97 @@ public class Nova {
         ui.showWelcome();
         boolean isExit = false;
         while (!isExit) {
+            isExit = handle(ui.readCommand());
+        }
+    }
+
+    /**
+     * Parses and executes a single command, showing its result or error.
+     *
+     * The history of the changes the command made is written once it has finished.
+     *
+     * If the data file is shared, it stays locked while a command that changes the
+     * list runs. Taking the lock first merges the changes of other processes, which
+     * needs the whole list, so in shared mode such commands wait for the background
+     * load to finish. Commands that only read the list do not take the lock; they see
+     * other processes' changes once the watcher has merged them.
+     *
+     * @param fullCommand The command entered by the user.
+     * @return true if the command exits the application.
+     */
+    public boolean handle(String fullCommand) {
+        ui.showLine();
+        try {
+            Command c = parser.parse(fullCommand);
+            SharedFile.Lock lock = c.isMutating() ? storage.lockFile() : null;
             try {
-                String fullCommand = ui.readCommand();
-                ui.showLine();
-                Command c = parser.parse(fullCommand);
                 c.execute(tasks, ui, storage);
-                isExit = c.isExit();
-            } catch (NovaException e) {
-                ui.showError(e.getMessage());
             } finally {
-                ui.showLine();
+                history.flush();
+                if (lock != null) {
+                    lock.close();
+                }
             }
+            return c.isExit();
+        } catch (NovaException e) {
+            ui.showError(e.getMessage());
+            return false;
+        } finally {
+            ui.showLine();
         }
     }
 
     /**
      * The main entry point for the application.
      *
-     * @param args The command line arguments (not used).
+     * Pass {@code --primary <port>} to stream changes to followers, or
+     * {@code --follower <port> [file]} to run as a warm standby of a primary.
+     * Pass {@code --data <file>} to use another data file; a file ending in
+     * {@code .nvz} is stored in the compressed format. Pass {@code --shared} to
+     * let several Nova processes use the same data file.
+     *
+     * @param args The command line arguments.
      */
     public static void main(String[] args) {
-        new Nova("./data/Nova.txt").run();
+        try {
+            if (args.length >= 2 && args[0].equals("--follower")) {
+                String filePath = args.length >= 3 ? args[2] : "./data/NovaFollower.txt";
+                new ReplicationFollower(filePath, Integer.parseInt(args[1])).run();
+                return;
+            }
+            String filePath = "./data/Nova.txt";
+            int primaryPort = -1;
+            boolean isShared = false;
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--shared")) {
+                    isShared = true;
+                    continue;
+                }
+                if (i + 1 == args.length) {
+                    System.err.println("Missing value for option: " + args[i]);
+                    return;
+                }
+                switch (args[i]) {
+                case "--data":
+                    filePath = args[++i];
+                    break;
+                case "--primary":
+                    primaryPort = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+                }
+            }
+            Nova nova = new Nova(filePath, isShared);
+            if (primaryPort >= 0) {
+                nova.replicateTo(primaryPort);
+            }
+            nova.run();
+        } catch (NovaException e) {
+            System.err.println(e.getMessage());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+package nova;
+
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * A balanced search tree that also supports lookup by position.
+ *
+ * Each node records the size of its subtree, so finding the element at a given
+ * position and finding the position of a given element both take O(log n), as do
+ * insertion and removal. Balance is kept with random priorities (a treap).
+ * Elements must be distinct under the comparator.
+ *
+ * @param <T> The type of element stored.
+ */
+class OrderStatisticTree<T> {
+    private final Comparator<? super T> comparator;
+    private final Random random = new Random();
+    private Node<T> root;
+
+    private static class Node<T> {
+        private final T value;
+        private final int priority;
+        private int size = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Constructs an empty tree ordered by the given comparator.
+     *
+     * @param comparator The ordering of the elements.
+     */
+    OrderStatisticTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns the number of elements in the tree.
+     *
+     * @return The number of elements.
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Inserts an element.
+     *
+     * @param value The element to insert.
+     */
+    void insert(T value) {
+        root = insert(root, new Node<>(value, random.nextInt()));
+    }
+
+    /**
+     * Removes an element, if present.
+     *
+     * @param value The element to remove.
+     */
+    void remove(T value) {
+        root = remove(root, value);
+    }
+
+    /**
+     * Returns the element at the given position in sorted order.
+     *
+     * @param position The zero-based position.
+     * @return The element at that position.
+     */
+    T get(int position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of range.");
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position == leftSize) {
+                return node.value;
+            } else {
+                position -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements that sort before the given element,
+     * which is its position if it is in the tree.
+     *
+     * @param value The element to locate.
+     * @return The zero-based position of the element.
+     */
+    int rank(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int c = comparator.compare(value, node.value);
+            if (c <= 0) {
+                if (c == 0) {
+                    return rank + size(node.left);
+                }
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (comparator.compare(added.value, node.value) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> remove(Node<T> node, T value) {
+        if (node == null) {
+            return null;
+        }
+        int c = comparator.compare(value, node.value);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        } else if (c < 0) {
+            node.left = remove(node.left, value);
+        } else {
+            node.right = remove(node.right, value);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        } else if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        update(node);
+        pivot.right = node;
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        update(node);
+        pivot.left = node;
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -23,7 +23,9 @@ class Parser {
         String command = inputParts[0];
         switch (command) {
         case "list":
-            return new ListCommand();
+            return new ListCommand(inputParts);
+        case "sort":
+            return new SortCommand(inputParts);
         case "mark":
             return new MarkCommand(input, true);
         case "unmark":
@@ -34,14 +36,26 @@ class Parser {
             return new DeadlineCommand(inputParts);
         case "event":
             return new EventCommand(inputParts);
+        case "recur":
+            return new RecurCommand(inputParts);
+        case "agenda":
+            return new AgendaCommand(inputParts);
         case "delete":
             return new DeleteCommand(input);
+        case "depend":
+            return new DependCommand(inputParts);
+        case "ready":
+            return new ReadyCommand();
         case "bye":
             return new ExitCommand();
         case "find":
             return new FindCommand(inputParts);
+        case "export":
+            return new ExportCommand(inputParts);
+        case "import":
+            return new ImportCommand(inputParts);
         default:
-            throw new NovaException("Unknown command! Available commands: list, mark, unmark, todo, deadline, event, delete, find, bye.");
+            throw new NovaException("Unknown command! Available commands: list, sort, mark, unmark, todo, deadline, event, recur, agenda, delete, depend, ready, find, export, import, bye.");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,269 @@
+package nova;
+
+import nova.task.Task;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * The follower side of Nova's delta replication.
+ *
+ * A follower keeps a warm standby copy of the primary's tasks in its own data file.
+ * It applies each streamed mutation to its own task list and storage, and remembers
+ * the last applied sequence number so it can resume after a disconnect.
+ *
+ * Added tasks are appended to the data file. The position file records the length
+ * of the data file along with the sequence number, so an append that was not yet
+ * recorded is cut off again on restart and replayed. Other mutations rewrite the
+ * data file into a temporary file together with the new position; moving the
+ * temporary data file into place commits both.
+ */
+public class ReplicationFollower {
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final Storage storage;
+    private final Storage tempStorage;
+    private final int port;
+    private final Path dataPath;
+    private final Path tempDataPath;
+    private final Path positionPath;
+    private final Path tempPositionPath;
+    private TaskList tasks;
+    private long epoch;
+    private long sequence;
+
+    /**
+     * Constructs a new ReplicationFollower.
+     *
+     * @param filePath The path to the follower's own data file.
+     * @param port The local port of the primary.
+     */
+    public ReplicationFollower(String filePath, int port) {
+        this.storage = Storage.open(filePath);
+        this.port = port;
+        this.dataPath = Paths.get(filePath);
+        this.tempDataPath = dataPath.resolveSibling("tmp-" + dataPath.getFileName());
+        this.tempStorage = Storage.open(tempDataPath.toString());
+        this.positionPath = Paths.get(filePath + ".seq");
+        this.tempPositionPath = Paths.get(filePath + ".seq.tmp");
+    }
+
+    /**
+     * Follows the primary until the process is stopped, reconnecting after disconnects.
+     *
+     * @throws NovaException If the follower's own data cannot be loaded.
+     */
+    public void run() throws NovaException {
+        restore();
+        while (true) {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                follow(socket);
+            } catch (IOException | NovaException e) {
+                System.err.println("Replication interrupted: " + e.getMessage());
+                restore();
+            }
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Asks the primary for everything after the last applied position and applies it until the stream ends.
+     *
+     * @param socket The connection to the primary.
+     * @throws IOException If the connection fails.
+     * @throws NovaException If a snapshot or delta cannot be applied.
+     */
+    void follow(Socket socket) throws IOException, NovaException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        writer.write("SYNC " + epoch + " " + sequence);
+        writer.newLine();
+        writer.flush();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("SNAPSHOT ")) {
+                applySnapshot(line, reader);
+            } else {
+                applyDelta(line);
+            }
+        }
+    }
+
+    /**
+     * Replaces the tasks with a {@code SNAPSHOT <epoch> <sequence> <count>} header and its records.
+     *
+     * @throws NovaException If the header is malformed or a record cannot be parsed.
+     */
+    private void applySnapshot(String header, BufferedReader reader) throws IOException, NovaException {
+        String[] parts = header.split(" ");
+        long snapshotEpoch;
+        long snapshotSequence;
+        int count;
+        try {
+            snapshotEpoch = Long.parseLong(parts[1]);
+            snapshotSequence = Long.parseLong(parts[2]);
+            count = Integer.parseInt(parts[3]);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new NovaException("Invalid snapshot from primary: " + header);
+        }
+        if (count < 0) {
+            throw new NovaException("Invalid snapshot from primary: " + header);
+        }
+        ArrayList<Task> snapshot = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String record = reader.readLine();
+            if (record == null) {
+                throw new IOException("Snapshot ended early.");
+            }
+            snapshot.add(storage.parseTask(record));
+        }
+        tasks = new TaskList(snapshot);
+        epoch = snapshotEpoch;
+        sequence = snapshotSequence;
+        rewrite();
+    }
+
+    /**
+     * Applies a single {@code <sequence> <A|M|U|R> ...} delta.
+     *
+     * @param delta The delta received from the primary.
+     * @throws NovaException If the delta is out of order or cannot be applied.
+     */
+    private void applyDelta(String delta) throws NovaException {
+        String[] parts = delta.split(" ", 3);
+        long deltaSequence;
+        try {
+            deltaSequence = Long.parseLong(parts[0]);
+            if (deltaSequence <= sequence) {
+                return;
+            }
+            if (deltaSequence != sequence + 1) {
+                throw new NovaException("Missed delta " + (sequence + 1) + ", resynchronising.");
+            }
+            switch (parts[1]) {
+            case "A":
+                Task task = storage.parseTask(parts[2]);
+                tasks.addTask(task);
+                storage.append(task);
+                sequence = deltaSequence;
+                savePosition();
+                return;
+            case "M":
+                String[] mark = parts[2].split(" ");
+                tasks.markTask(Integer.parseInt(mark[0]), mark[1].equals("1"));
+                break;
+            case "U":
+                String[] update = parts[2].split(" ", 2);
+                tasks.replaceTask(Integer.parseInt(update[0]), storage.parseTask(update[1]));
+                break;
+            case "R":
+                tasks.removeTask(Integer.parseInt(parts[2]));
+                break;
+            default:
+                throw new NovaException("Unknown delta from primary: " + delta);
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new NovaException("Invalid delta from primary: " + delta);
+        }
+        sequence = deltaSequence;
+        rewrite();
+    }
+
+    /**
+     * Rewrites the data file and the position, committing both with one atomic move.
+     */
+    private void rewrite() throws NovaException {
+        try {
+            tempStorage.save(tasks.getTasks());
+            writePosition(tempPositionPath, Files.size(tempDataPath));
+            Files.move(tempDataPath, dataPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempPositionPath, positionPath,
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new NovaException("Error saving replicated tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the current position and the length of the data file it covers.
+     */
+    private void savePosition() throws NovaException {
+        try {
+            writePosition(tempPositionPath, Files.size(dataPath));
+            Files.move(tempPositionPath, positionPath,
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new NovaException("Error saving replication position: " + e.getMessage());
+        }
+    }
+
+    private void writePosition(Path target, long length) throws IOException {
+        Files.writeString(target, epoch + " " + sequence + " " + length);
+    }
+
+    /**
+     * Finishes or discards a write interrupted by a crash, then reloads the tasks and position.
+     *
+     * A leftover temporary data file means the rewrite was never committed, so it is
+     * discarded. Otherwise a leftover temporary position belongs to the data file in
+     * place and is moved over the old one. Data appended after the recorded length is
+     * cut off, since its delta was never recorded as applied.
+     */
+    void restore() throws NovaException {
+        try {
+            if (Files.exists(tempDataPath)) {
+                Files.delete(tempDataPath);
+                Files.deleteIfExists(tempPositionPath);
+            } else if (Files.exists(tempPositionPath)) {
+                Files.move(tempPositionPath, positionPath,
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long length = loadPosition();
+            if (length >= 0 && Files.exists(dataPath) && Files.size(dataPath) > length) {
+                try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.WRITE)) {
+                    channel.truncate(length);
+                }
+            }
+        } catch (IOException e) {
+            throw new NovaException("Error restoring replicated tasks: " + e.getMessage());
+        }
+        tasks = new TaskList(storage.load());
+    }
+
+    /**
+     * Reads the last recorded position.
+     *
+     * @return The length of the data file at that position, or -1 if it is not known.
+     */
+    private long loadPosition() {
+        try {
+            String[] position = Files.readString(positionPath).trim().split(" ");
+            epoch = Long.parseLong(position[0]);
+            sequence = Long.parseLong(position[1]);
+            return position.length > 2 ? Long.parseLong(position[2]) : -1;
+        } catch (IOException | RuntimeException e) {
+            epoch = 0;
+            sequence = 0;
+            return -1;
+        }
+    }
+}
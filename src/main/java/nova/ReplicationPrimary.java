@@ -0,0 +1,261 @@
+package nova;
+
+import nova.task.Task;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The primary side of Nova's delta replication.
+ *
+ * Every mutation of the task list is given a sequence number and streamed to
+ * connected followers over a local socket. Recent mutations are retained so that
+ * a follower reconnecting after a disconnect only receives what it missed;
+ * a full snapshot is sent only when the follower is too far behind or was
+ * following a different primary run.
+ *
+ * Each follower has its own queue and sender thread, so a slow follower never
+ * blocks the task list. A follower whose queue grows past
+ * {@value #MAX_QUEUED_DELTAS} deltas is disconnected; it catches up when it reconnects.
+ */
+public class ReplicationPrimary implements TaskListListener {
+    private static final int MAX_RETAINED_DELTAS = 10_000;
+    private static final int MAX_QUEUED_DELTAS = 10_000;
+
+    private final TaskList tasks;
+    private final Storage storage;
+    private final ServerSocket serverSocket;
+    private final long epoch = System.currentTimeMillis();
+    private final ArrayDeque<String> retainedDeltas = new ArrayDeque<>();
+    private final ArrayList<Follower> followers = new ArrayList<>();
+    private long sequence;
+
+    /**
+     * A connected follower and the lines still to be sent to it.
+     */
+    private static class Follower {
+        private final Socket socket;
+        private final BufferedWriter writer;
+        private final ArrayDeque<String> queue = new ArrayDeque<>();
+        private boolean isClosed;
+
+        Follower(Socket socket, BufferedWriter writer) {
+            this.socket = socket;
+            this.writer = writer;
+        }
+
+        /**
+         * Queues a line for sending.
+         *
+         * @param line The line to send.
+         * @param isLive Whether the line is a live delta, which is refused once the follower is too far behind.
+         * @return false if the follower is closed or too far behind.
+         */
+        synchronized boolean offer(String line, boolean isLive) {
+            if (isClosed || (isLive && queue.size() >= MAX_QUEUED_DELTAS)) {
+                return false;
+            }
+            queue.addLast(line);
+            notifyAll();
+            return true;
+        }
+
+        /**
+         * Sends queued lines until the connection fails or is closed.
+         */
+        void send() {
+            try {
+                while (true) {
+                    String line;
+                    boolean isLast;
+                    synchronized (this) {
+                        while (queue.isEmpty() && !isClosed) {
+                            wait();
+                        }
+                        if (isClosed) {
+                            return;
+                        }
+                        line = queue.removeFirst();
+                        isLast = queue.isEmpty();
+                    }
+                    writer.write(line);
+                    writer.newLine();
+                    if (isLast) {
+                        writer.flush();
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                close();
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                isClosed = true;
+                queue.clear();
+                notifyAll();
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // The connection is already unusable.
+            }
+        }
+    }
+
+    /**
+     * Constructs a new ReplicationPrimary listening on the given local port.
+     *
+     * @param tasks The task list to replicate.
+     * @param storage The storage used to format tasks for the wire.
+     * @param port The local port followers connect to.
+     * @throws NovaException If the port cannot be opened.
+     */
+    public ReplicationPrimary(TaskList tasks, Storage storage, int port) throws NovaException {
+        this.tasks = tasks;
+        this.storage = storage;
+        try {
+            serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new NovaException("Error starting replication: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts accepting followers in the background and begins streaming mutations.
+     */
+    public void start() {
+        tasks.addListener(this);
+        Thread acceptor = new Thread(this::acceptFollowers, "nova-replication");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        publish("A " + storage.formatTask(task));
+    }
+
+    @Override
+    public void taskMarked(int index, Task task) {
+        publish("M " + index + " " + (task.isDone ? 1 : 0));
+    }
+
+    @Override
+    public void taskUpdated(int index, Task task) {
+        publish("U " + index + " " + storage.formatTask(task));
+    }
+
+    @Override
+    public void taskRemoved(int index, Task task) {
+        publish("R " + index);
+    }
+
+    /**
+     * Assigns the next sequence number to a mutation and queues it for every follower.
+     *
+     * This never blocks on the network: a follower that has fallen too far behind is dropped instead.
+     *
+     * @param mutation The encoded mutation.
+     */
+    private synchronized void publish(String mutation) {
+        String delta = ++sequence + " " + mutation;
+        retainedDeltas.addLast(delta);
+        if (retainedDeltas.size() > MAX_RETAINED_DELTAS) {
+            retainedDeltas.removeFirst();
+        }
+        Iterator<Follower> it = followers.iterator();
+        while (it.hasNext()) {
+            Follower follower = it.next();
+            if (!follower.offer(delta, true)) {
+                follower.close();
+                it.remove();
+            }
+        }
+    }
+
+    private void acceptFollowers() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                try {
+                    register(socket);
+                } catch (IOException e) {
+                    socket.close();
+                }
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Brings a newly connected follower up to date and adds it to the live stream.
+     *
+     * The follower opens with {@code SYNC <epoch> <lastSequence>}. If that position is
+     * still covered by the retained deltas, only the missing deltas are replayed;
+     * otherwise a snapshot of the whole list is sent first.
+     *
+     * @param socket The follower's connection.
+     * @throws IOException If the handshake fails.
+     */
+    private void register(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        String[] hello = String.valueOf(reader.readLine()).split(" ");
+        long followerEpoch;
+        long followerSequence;
+        try {
+            followerEpoch = Long.parseLong(hello[1]);
+            followerSequence = Long.parseLong(hello[2]);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Invalid handshake from follower.");
+        }
+        Follower follower = new Follower(socket, writer);
+        // Wait for any background load outside the locks so mutations are not blocked meanwhile.
+        tasks.getTasks();
+        synchronized (tasks) {
+            synchronized (this) {
+                long oldestRetained = sequence - retainedDeltas.size();
+                if (followerEpoch != epoch || followerSequence < oldestRetained || followerSequence > sequence) {
+                    for (String line : snapshot()) {
+                        follower.offer(line, false);
+                    }
+                } else {
+                    for (String delta : retainedDeltas) {
+                        if (Long.parseLong(delta.substring(0, delta.indexOf(' '))) > followerSequence) {
+                            follower.offer(delta, false);
+                        }
+                    }
+                }
+                followers.add(follower);
+            }
+        }
+        Thread sender = new Thread(follower::send, "nova-replication-sender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    private List<String> snapshot() {
+        ArrayList<Task> snapshot = tasks.getTasks();
+        List<String> lines = new ArrayList<>(snapshot.size() + 1);
+        lines.add("SNAPSHOT " + epoch + " " + sequence + " " + snapshot.size());
+        for (Task task : snapshot) {
+            lines.add(storage.formatTask(task));
+        }
+        return lines;
+    }
+}
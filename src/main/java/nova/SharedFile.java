@@ -0,0 +1,529 @@
+package nova;
+
+import nova.task.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a task list in step with a data file that other Nova processes also write to.
+ *
+ * Writers take an exclusive lock on a {@code .lock} file next to the data file, and
+ * readers a shared one. A watcher thread notices when the data file changes and reads
+ * only the bytes after the last known offset, adding the appended records to the live
+ * list. Writers that rewrite the whole file bump a generation number kept in the lock
+ * file; when it changes, or the last bytes before the known offset no longer match,
+ * the list is reconciled with a full read instead.
+ *
+ * Changes read from the file are applied through {@link TaskList#applyExternalChanges},
+ * so the history, which the writing process has already recorded, is not written twice.
+ * Merging needs the whole list, so {@link #lock()} and {@link #refresh()} wait for the
+ * background load to finish.
+ */
+public class SharedFile {
+    private static final int FINGERPRINT_SIZE = 64;
+    private static final int MAX_EDITS = 1024;
+    private static final int READ_CHUNK = 64 * 1024;
+
+    private final Storage storage;
+    private final TaskList tasks;
+    private final Path path;
+    private final Path lockPath;
+    private final ReentrantLock mutex = new ReentrantLock();
+    private FileChannel lockChannel;
+    private long knownGeneration;
+    private long knownLength;
+    private byte[] fingerprint;
+
+    /**
+     * A hold on the exclusive write lock, released when closed.
+     *
+     * The lock is reentrant: a command can hold it while the storage takes it again to write.
+     */
+    public class Lock implements AutoCloseable {
+        private Lock() {
+        }
+
+        /**
+         * Records that the whole file was rewritten, so other processes reload it.
+         *
+         * @throws IOException If the lock file cannot be written.
+         */
+        public void markRewritten() throws IOException {
+            ByteBuffer generation = ByteBuffer.allocate(Long.BYTES).putLong(0, readGeneration(lockChannel) + 1);
+            while (generation.hasRemaining()) {
+                lockChannel.write(generation, generation.position());
+            }
+        }
+
+        /**
+         * Releases this hold, and the file lock once no holds remain.
+         *
+         * @throws NovaException If the lock cannot be released.
+         */
+        @Override
+        public void close() throws NovaException {
+            unlock();
+        }
+    }
+
+    /**
+     * Constructs a new SharedFile for the given data file.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param storage The storage used to read and parse the file.
+     * @param tasks The live task list to keep up to date.
+     * @param loadedLength The number of bytes read by the initial load.
+     */
+    public SharedFile(String filePath, Storage storage, TaskList tasks, long loadedLength) {
+        this.storage = storage;
+        this.tasks = tasks;
+        this.path = Paths.get(filePath);
+        this.lockPath = Paths.get(filePath + ".lock");
+        this.knownLength = loadedLength;
+        try (FileChannel channel = openLockFile()) {
+            this.knownGeneration = readGeneration(channel);
+            this.fingerprint = readFingerprint(loadedLength);
+        } catch (IOException e) {
+            this.fingerprint = new byte[0];
+        }
+    }
+
+    /**
+     * Starts watching the data file for changes made by other processes.
+     *
+     * @throws NovaException If the directory cannot be watched.
+     */
+    public void start() throws NovaException {
+        Path directory = path.toAbsolutePath().getParent();
+        WatchService watcher;
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new NovaException("Error watching the task file: " + e.getMessage());
+        }
+        Thread thread = new Thread(() -> watch(watcher), "nova-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch(WatchService watcher) {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean isChanged = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (path.getFileName().equals(event.context())
+                            || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        isChanged = true;
+                    }
+                }
+                key.reset();
+                if (isChanged) {
+                    try {
+                        refresh();
+                    } catch (NovaException e) {
+                        System.err.println(e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes the exclusive write lock, first merging any changes made by other processes.
+     *
+     * @return A hold on the lock, which must be closed once the file has been written.
+     * @throws NovaException If the lock cannot be taken or the changes cannot be read.
+     */
+    public Lock lock() throws NovaException {
+        mutex.lock();
+        if (mutex.getHoldCount() > 1) {
+            return new Lock();
+        }
+        try {
+            lockChannel = openLockFile();
+            lockChannel.lock();
+            update(lockChannel);
+            return new Lock();
+        } catch (IOException e) {
+            abandon(e);
+            throw new NovaException("Error locking the shared task file: " + e.getMessage());
+        } catch (NovaException | RuntimeException e) {
+            abandon(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gives up a lock that could not be fully taken.
+     */
+    private void abandon(Exception cause) {
+        try {
+            release();
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    private void unlock() throws NovaException {
+        try {
+            if (mutex.getHoldCount() == 1) {
+                knownGeneration = readGeneration(lockChannel);
+                remember();
+                release();
+            }
+        } catch (IOException e) {
+            throw new NovaException("Error unlocking the shared task file: " + e.getMessage());
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     * Closes the lock file, which releases the file lock.
+     */
+    private void release() throws IOException {
+        try {
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+        } finally {
+            lockChannel = null;
+        }
+    }
+
+    /**
+     * Brings the task list up to date with the data file.
+     *
+     * @return true if the list changed.
+     * @throws NovaException If the file cannot be read.
+     */
+    public boolean refresh() throws NovaException {
+        mutex.lock();
+        try {
+            if (lockChannel != null) {
+                return update(lockChannel);
+            }
+            try (FileChannel channel = openLockFile()) {
+                FileLock shared = channel.lock(0, Long.MAX_VALUE, true);
+                try {
+                    return update(channel);
+                } finally {
+                    shared.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new NovaException("Error reading the shared task file: " + e.getMessage());
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     * Merges the changes made since the file was last seen, while holding a lock on it.
+     */
+    private boolean update(FileChannel channel) throws IOException, NovaException {
+        tasks.getTasks();
+        long generation = readGeneration(channel);
+        long length = Files.exists(path) ? Files.size(path) : 0;
+        boolean isRewritten = generation != knownGeneration || length < knownLength
+                || !Arrays.equals(fingerprint, readFingerprint(knownLength));
+        if (!isRewritten) {
+            return length > knownLength && readAppended(length);
+        }
+        ArrayList<Task> stored = Files.exists(path) ? storage.load() : new ArrayList<>();
+        tasks.applyExternalChanges(() -> reconcile(stored));
+        knownGeneration = generation;
+        remember();
+        return true;
+    }
+
+    private FileChannel openLockFile() throws IOException {
+        return FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static long readGeneration(FileChannel channel) throws IOException {
+        ByteBuffer generation = ByteBuffer.allocate(Long.BYTES);
+        while (generation.hasRemaining() && channel.read(generation, generation.position()) >= 0) {
+            // Keep reading until the buffer is full.
+        }
+        return generation.hasRemaining() ? 0 : generation.getLong(0);
+    }
+
+    /**
+     * Adds the complete records between the known offset and {@code length} to the list.
+     *
+     * The file is read {@value #READ_CHUNK} bytes at a time, and the records in each
+     * chunk are added before the next is read, so a large append is never held in
+     * memory as a whole.
+     */
+    private boolean readAppended(long length) throws IOException, NovaException {
+        ByteBuffer chunk = ByteBuffer.allocate(READ_CHUNK);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        boolean isChanged = false;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = knownLength;
+            while (position < length) {
+                chunk.clear().limit((int) Math.min(READ_CHUNK, length - position));
+                int read = channel.read(chunk, position);
+                if (read < 0) {
+                    break;
+                }
+                List<Task> added = new ArrayList<>();
+                long end = knownLength;
+                for (int i = 0; i < read; i++) {
+                    byte b = chunk.get(i);
+                    if (b != '\n') {
+                        line.write(b);
+                        continue;
+                    }
+                    String record = line.toString(Charset.defaultCharset());
+                    line.reset();
+                    if (record.endsWith("\r")) {
+                        record = record.substring(0, record.length() - 1);
+                    }
+                    if (!record.isBlank()) {
+                        added.add(storage.parseTask(record));
+                    }
+                    end = position + i + 1;
+                }
+                position += read;
+                tasks.applyExternalChanges(() -> tasks.addTasks(added));
+                isChanged |= !added.isEmpty();
+                knownLength = end;
+            }
+        }
+        fingerprint = readFingerprint(knownLength);
+        return isChanged;
+    }
+
+    /**
+     * Changes the list to match the stored tasks, keeping the tasks both have in common.
+     *
+     * Tasks are compared by their stored form, and the shortest edit between the two
+     * lists is found with Myers' diff. Only the rows it changes are touched: a removed
+     * row paired with an added one is marked or replaced in place, and the rest are
+     * removed or added at the end. If the rows differ too much, or a row was added
+     * before the end, the differing middle is rewritten row by row instead.
+     */
+    private void reconcile(ArrayList<Task> stored) {
+        ArrayList<Task> current = tasks.getTasks();
+        List<String> before = new ArrayList<>(current.size());
+        for (Task task : current) {
+            before.add(storage.formatTask(task));
+        }
+        List<String> after = new ArrayList<>(stored.size());
+        for (Task task : stored) {
+            after.add(storage.formatTask(task));
+        }
+        List<int[]> runs = diff(before, after);
+        if (runs == null) {
+            reconcileInPlace(stored, before, after);
+            return;
+        }
+        int shift = 0;
+        for (int[] run : runs) {
+            int index = run[0] + shift;
+            int removed = run[1];
+            int added = run[3];
+            int paired = Math.min(removed, added);
+            for (int i = 0; i < paired; i++) {
+                if (!before.get(run[0] + i).equals(after.get(run[2] + i))) {
+                    updateRow(index + i, before.get(run[0] + i), stored.get(run[2] + i));
+                }
+            }
+            for (int i = paired; i < removed; i++) {
+                tasks.removeTask(index + paired);
+            }
+            for (int i = paired; i < added; i++) {
+                tasks.addTask(stored.get(run[2] + i));
+            }
+            shift += added - removed;
+        }
+    }
+
+    /**
+     * Finds the runs of rows that differ between two lists.
+     *
+     * Each run is {@code {beforeStart, removedCount, afterStart, addedCount}}.
+     *
+     * @return The runs in order, or null if they need more than {@value #MAX_EDITS}
+     *         edits or add rows anywhere but at the end.
+     */
+    private static List<int[]> diff(List<String> before, List<String> after) {
+        int n = before.size();
+        int m = after.size();
+        List<int[]> trace = new ArrayList<>();
+        int[] previous = null;
+        int edits = -1;
+        for (int d = 0; d <= Math.min(n + m, MAX_EDITS) && edits < 0; d++) {
+            // The furthest x reached on each diagonal k = x - y, stored at index k + d.
+            int[] furthest = new int[2 * d + 1];
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (d == 0) {
+                    x = 0;
+                } else if (k == -d || (k != d && previous[k - 1 + d - 1] < previous[k + 1 + d - 1])) {
+                    x = previous[k + 1 + d - 1];
+                } else {
+                    x = previous[k - 1 + d - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && before.get(x).equals(after.get(y))) {
+                    x++;
+                    y++;
+                }
+                furthest[k + d] = x;
+                if (x >= n && y >= m) {
+                    edits = d;
+                }
+            }
+            trace.add(furthest);
+            previous = furthest;
+        }
+        if (edits < 0) {
+            return null;
+        }
+        // Walk back through the trace, marking the rows that are removed and added.
+        boolean[] isRemoved = new boolean[n];
+        boolean[] isAdded = new boolean[m];
+        int x = n;
+        int y = m;
+        for (int d = edits; d > 0; d--) {
+            int[] reached = trace.get(d - 1);
+            int k = x - y;
+            boolean isDown = k == -d || (k != d && reached[k - 1 + d - 1] < reached[k + 1 + d - 1]);
+            int previousK = isDown ? k + 1 : k - 1;
+            int previousX = reached[previousK + d - 1];
+            int previousY = previousX - previousK;
+            if (isDown) {
+                isAdded[previousY] = true;
+            } else {
+                isRemoved[previousX] = true;
+            }
+            x = previousX;
+            y = previousY;
+        }
+        List<int[]> runs = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            if (i < n && j < m && !isRemoved[i] && !isAdded[j]) {
+                i++;
+                j++;
+                continue;
+            }
+            int[] run = {i, 0, j, 0};
+            while (i < n && isRemoved[i]) {
+                i++;
+                run[1]++;
+            }
+            while (j < m && isAdded[j]) {
+                j++;
+                run[3]++;
+            }
+            if (run[3] > run[1] && i < n) {
+                return null;
+            }
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    /**
+     * Rewrites the differing middle of the list row by row.
+     */
+    private void reconcileInPlace(ArrayList<Task> stored, List<String> before, List<String> after) {
+        int shorter = Math.min(before.size(), after.size());
+        int prefix = 0;
+        while (prefix < shorter && before.get(prefix).equals(after.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shorter - prefix
+                && before.get(before.size() - 1 - suffix).equals(after.get(after.size() - 1 - suffix))) {
+            suffix++;
+        }
+        if (after.size() > before.size()) {
+            suffix = 0;
+        }
+        int beforeEnd = before.size() - suffix;
+        int afterEnd = after.size() - suffix;
+        int common = Math.min(beforeEnd, afterEnd);
+        for (int i = prefix; i < common; i++) {
+            if (!before.get(i).equals(after.get(i))) {
+                updateRow(i, before.get(i), stored.get(i));
+            }
+        }
+        for (int i = common; i < beforeEnd; i++) {
+            tasks.removeTask(common);
+        }
+        for (int i = common; i < afterEnd; i++) {
+            tasks.addTask(stored.get(i));
+        }
+    }
+
+    /**
+     * Changes one row to the stored task, by marking it if that is the only difference.
+     */
+    private void updateRow(int index, String before, Task task) {
+        boolean isDone = task.isDone;
+        task.markAsDone(!isDone);
+        boolean isOnlyMarked = storage.formatTask(task).equals(before);
+        task.markAsDone(isDone);
+        if (isOnlyMarked) {
+            tasks.markTask(index, isDone);
+        } else {
+            tasks.replaceTask(index, task);
+        }
+    }
+
+    /**
+     * Records the current end of the file as already seen.
+     */
+    private void remember() throws IOException {
+        knownLength = Files.exists(path) ? Files.size(path) : 0;
+        fingerprint = readFingerprint(knownLength);
+    }
+
+    /**
+     * Returns the last bytes before the given offset, used to tell appends from rewrites.
+     */
+    private byte[] readFingerprint(long offset) throws IOException {
+        if (offset == 0 || !Files.exists(path)) {
+            return new byte[0];
+        }
+        int size = (int) Math.min(FINGERPRINT_SIZE, offset);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer, offset - size + buffer.position()) >= 0) {
+                // Keep reading until the buffer is full.
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+}
@@ -0,0 +1,72 @@
+package nova;
+
+import nova.task.Deadline;
+import nova.task.Event;
+import nova.task.Recurring;
+import nova.task.Task;
+
+/**
+ * The orders in which the task list can be viewed.
+ */
+public enum SortOrder {
+    DUE("due"),
+    DESCRIPTION("description"),
+    TYPE("type"),
+    DONE("done");
+
+    private final String name;
+
+    SortOrder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the sort order with the given name.
+     *
+     * @param name The name used in the {@code sort by:<name>} command.
+     * @return The matching sort order.
+     * @throws NovaException If no sort order has that name.
+     */
+    public static SortOrder fromName(String name) throws NovaException {
+        for (SortOrder order : values()) {
+            if (order.name.equals(name)) {
+                return order;
+            }
+        }
+        throw new NovaException("Unknown sort order. Use one of: due, description, type, done, added.");
+    }
+
+    /**
+     * Returns the value a task is sorted by under this order.
+     *
+     * Tasks with equal keys keep the order in which they were added, and
+     * tasks without a key (such as todos when sorting by due date) come last.
+     *
+     * @param task The task to get the key of.
+     * @return The sort key, or null if the task has none.
+     */
+    String keyOf(Task task) {
+        switch (this) {
+        case DUE:
+            if (task instanceof Deadline) {
+                return ((Deadline) task).by.substring(4).trim();
+            } else if (task instanceof Event) {
+                return ((Event) task).from.substring(6).trim();
+            } else if (task instanceof Recurring) {
+                return ((Recurring) task).start.toString();
+            }
+            return null;
+        case DESCRIPTION:
+            return task.description.toLowerCase();
+        case TYPE:
+            return task.toString().substring(0, 3);
+        default:
+            return task.isDone ? "1" : "0";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
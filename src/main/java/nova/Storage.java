@@ -3,15 +3,23 @@ package nova;
 import nova.NovaException;
 import nova.task.Deadline;
 import nova.task.Event;
+import nova.task.Recurring;
 import nova.task.Task;
 import nova.task.Todo;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -20,15 +28,149 @@ import java.util.Scanner;
  * This class is responsible for loading tasks from and saving tasks to a file.
  */
 public class Storage {
+    private static final int LOAD_BATCH_SIZE = 1024;
+
     private final String filePath;
+    private final StringPool stringPool;
+    private TaskHistory history;
+    private TaskGraph dependencies;
+    private SharedFile sharedFile;
+    private long loadedLength;
 
     /**
-     * Constructs a new Storage instance.
+     * Constructs a new Storage instance that shares repeated task text in memory.
      *
      * @param filePath The path to the file where tasks are stored.
      */
     public Storage(String filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * Constructs a new Storage instance.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param isInterning Whether repeated descriptions and dates should be stored only once in memory.
+     */
+    public Storage(String filePath, boolean isInterning) {
         this.filePath = filePath;
+        this.stringPool = isInterning ? new StringPool() : null;
+    }
+
+    /**
+     * Creates the storage for the given file, choosing the format from its extension.
+     *
+     * Files ending in {@code .nvz} are kept in compressed blocks; any other file is plain text.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @return The storage for that file.
+     */
+    public static Storage open(String filePath) {
+        if (filePath.endsWith(".nvz")) {
+            return new CompressedStorage(filePath);
+        }
+        return new Storage(filePath);
+    }
+
+    /**
+     * Starts recording every version of the given task list next to the storage file.
+     *
+     * @param tasks The task list whose mutations are recorded.
+     * @return The history, which must be registered as a listener on {@code tasks}.
+     */
+    public TaskHistory enableHistory(TaskList tasks) {
+        history = new TaskHistory(filePath, this, tasks);
+        return history;
+    }
+
+    /**
+     * Returns the recorded history of the task list.
+     *
+     * @return The history.
+     * @throws NovaException If history recording is not enabled.
+     */
+    public TaskHistory getHistory() throws NovaException {
+        if (history == null) {
+            throw new NovaException("Task history is not enabled.");
+        }
+        return history;
+    }
+
+    /**
+     * Starts tracking dependencies between the tasks of the given list, saved next to the storage file.
+     *
+     * @param tasks The task list whose tasks can depend on each other.
+     * @return The dependency graph, which must be registered as a listener on {@code tasks}.
+     */
+    public TaskGraph enableDependencies(TaskList tasks) {
+        dependencies = new TaskGraph(filePath, tasks);
+        return dependencies;
+    }
+
+    /**
+     * Returns the dependency graph, loading the saved dependencies on first use.
+     *
+     * @return The dependency graph.
+     * @throws NovaException If dependency tracking is not enabled or the dependencies cannot be loaded.
+     */
+    public TaskGraph getDependencies() throws NovaException {
+        if (dependencies == null) {
+            throw new NovaException("Task dependencies are not enabled.");
+        }
+        dependencies.ensureLoaded();
+        return dependencies;
+    }
+
+    /**
+     * Starts sharing the storage file with other Nova processes.
+     *
+     * Writes are then made under a file lock, and records written by other processes
+     * are merged into the given list as they appear. Call this after starting the load.
+     *
+     * Merging compares against the whole list, so once sharing is enabled, taking the
+     * lock with {@link #lockFile()}, as every write does, waits for the background load
+     * to finish.
+     *
+     * @param tasks The live task list.
+     * @return The shared file, which must be started to watch for changes.
+     * @throws NovaException If this storage format cannot be shared.
+     */
+    public SharedFile enableSharing(TaskList tasks) throws NovaException {
+        sharedFile = new SharedFile(filePath, this, tasks, loadedLength);
+        return sharedFile;
+    }
+
+    /**
+     * Merges records written by other processes into the list, if the file is shared.
+     *
+     * @throws NovaException If the file cannot be read.
+     */
+    public void refresh() throws NovaException {
+        if (sharedFile != null) {
+            sharedFile.refresh();
+        }
+    }
+
+    /**
+     * Takes the write lock of a shared file, merging the changes of other processes first.
+     *
+     * Holding it for a whole command keeps the list and the file in the same order.
+     *
+     * @return The lock, or null if the file is not shared.
+     * @throws NovaException If the lock cannot be taken or the changes cannot be read.
+     */
+    public SharedFile.Lock lockFile() throws NovaException {
+        return sharedFile == null ? null : sharedFile.lock();
+    }
+
+    /**
+     * Returns a shared copy of the given task text if interning is enabled.
+     *
+     * @param text The task text, such as a description or date.
+     * @return The shared copy, or {@code text} itself if interning is disabled.
+     */
+    public String intern(String text) {
+        return stringPool == null ? text : stringPool.intern(text);
     }
 
 
@@ -41,7 +183,7 @@ public class Storage {
     public ArrayList<Task> load() throws NovaException {
         ArrayList<Task> tasks = new ArrayList<>();
         try {
-            Files.createDirectories(Paths.get("./data"));
+            createDirectories();
             File file = new File(filePath);
             if (file.exists()) {
                 Scanner scanner = new Scanner(file);
@@ -56,6 +198,118 @@ public class Storage {
         return tasks;
     }
 
+    /**
+     * Creates the directory holding the storage file, if it is missing.
+     */
+    private void createDirectories() throws IOException {
+        File parent = new File(filePath).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+    }
+
+    /**
+     * Loads tasks from the storage file into the given list in the background.
+     *
+     * The list can be used straight away: tasks are published in batches as they
+     * are parsed, and tasks added meanwhile are kept after the loaded ones. Only the
+     * records present when this method is called are loaded, so tasks appended
+     * during the load are not read back twice.
+     *
+     * @param tasks The empty task list to fill.
+     * @param ui The user interface used to report a failed load.
+     */
+    public void loadInBackground(TaskList tasks, Ui ui) {
+        File file = new File(filePath);
+        long length = file.length();
+        loadedLength = length;
+        tasks.beginLoading();
+        Thread loader = new Thread(() -> {
+            boolean isSuccessful = false;
+            try {
+                createDirectories();
+                if (file.exists()) {
+                    loadRecords(file, length, tasks);
+                } else {
+                    tasks.setExpectedCount(0);
+                }
+                isSuccessful = true;
+            } catch (IOException e) {
+                ui.showLoadingError("Error loading tasks: " + e.getMessage());
+            } catch (NovaException e) {
+                ui.showLoadingError(e.getMessage());
+            } finally {
+                tasks.finishLoading(isSuccessful);
+            }
+        }, "nova-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Reads the records in the first {@code length} bytes of the file into a list being loaded.
+     *
+     * The number of records is reported through {@link TaskList#setExpectedCount} before
+     * any are published, so the list size is known early.
+     *
+     * @param file The storage file.
+     * @param length The number of bytes present when the load started.
+     * @param tasks The list being loaded.
+     * @throws IOException If the file cannot be read.
+     * @throws NovaException If a record cannot be parsed.
+     */
+    protected void loadRecords(File file, long length, TaskList tasks) throws IOException, NovaException {
+        int count = countRecords(file, length);
+        tasks.setExpectedCount(count);
+        streamRecords(file, count, tasks);
+    }
+
+    /**
+     * Counts the records in the first {@code length} bytes of the file.
+     *
+     * This only scans for line breaks, which is much cheaper than parsing.
+     */
+    private int countRecords(File file, long length) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        int count = 0;
+        long remaining = length;
+        byte last = '\n';
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        count++;
+                    }
+                }
+                last = buffer[read - 1];
+                remaining -= read;
+            }
+        }
+        return last == '\n' ? count : count + 1;
+    }
+
+    private void streamRecords(File file, int count, TaskList tasks) throws IOException, NovaException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), Charset.defaultCharset())) {
+            ArrayList<Task> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            for (int i = 0; i < count; i++) {
+                String line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                batch.add(parseTask(line));
+                if (batch.size() == LOAD_BATCH_SIZE) {
+                    tasks.addLoadedTasks(batch);
+                    batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                }
+            }
+            tasks.addLoadedTasks(batch);
+        }
+    }
+
     /**
      * Parses a task from a line of text.
      *
@@ -63,13 +317,13 @@ public class Storage {
      * @return The parsed task.
      * @throws NovaException If there is an error parsing the task.
      */
-    private Task parseTask(String line) throws NovaException {
+    Task parseTask(String line) throws NovaException {
         String[] parts = line.split("\\|");
         if (parts.length < 3) {
             throw new NovaException("Invalid task format in file.");
         }
         String type = parts[0].trim();
-        String description = parts[2].trim();
+        String description = intern(parts[2].trim());
         Task task;
         switch (type) {
         case "T":
@@ -77,18 +331,26 @@ public class Storage {
             break;
         case "D":
             if (parts.length == 4) {
-                task = new Deadline(description, "by: " + parts[3].trim());
+                task = new Deadline(description, intern("by: " + parts[3].trim()));
             } else {
                 throw new NovaException("Invalid deadline format in file.");
             }
             break;
         case "E":
             if (parts.length == 5) {
-                task = new Event(description, "from: " + parts[3].trim(), "to: " + parts[4].trim());
+                task = new Event(description, intern("from: " + parts[3].trim()),
+                        intern("to: " + parts[4].trim()));
             } else {
                 throw new NovaException("Invalid event format in file.");
             }
             break;
+        case "R":
+            if (parts.length == 5 || parts.length == 6) {
+                task = parseRecurring(description, parts);
+            } else {
+                throw new NovaException("Invalid recurring task format in file.");
+            }
+            break;
         default:
             throw new NovaException("Unknown task type in file.");
         }
@@ -96,6 +358,26 @@ public class Storage {
         return task;
     }
 
+    /**
+     * Parses a recurring task stored as {@code R | done | description | start | interval | done dates}.
+     */
+    private Recurring parseRecurring(String description, String[] parts) throws NovaException {
+        try {
+            Recurring task = new Recurring(description, LocalDate.parse(parts[3].trim()),
+                    Integer.parseInt(parts[4].trim()));
+            if (task.intervalDays < 1) {
+                throw new NovaException("Invalid recurring task format in file.");
+            }
+            if (parts.length == 6 && !parts[5].isBlank()) {
+                for (String date : parts[5].trim().split(",")) {
+                    task.markOccurrence(LocalDate.parse(date), true);
+                }
+            }
+            return task;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new NovaException("Invalid recurring task format in file.");
+        }
+    }
 
     /**
      * Saves tasks to the storage file.
@@ -104,24 +386,133 @@ public class Storage {
      * @throws NovaException If there is an error saving the tasks.
      */
     public void save(ArrayList<Task> tasks) throws NovaException {
+        try (SharedFile.Lock lock = lockFile()) {
+            if (lock != null) {
+                lock.markRewritten();
+            }
+            writeAll(tasks);
+        } catch (IOException e) {
+            throw new NovaException("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    private void writeAll(List<Task> tasks) throws IOException {
+        FileWriter writer = new FileWriter(filePath);
+        for (Task task : tasks) {
+            writer.write(formatTask(task) + System.lineSeparator());
+        }
+        writer.close();
+    }
+
+    /**
+     * Reads a range of stored tasks straight from the file, without loading the rest of it.
+     *
+     * Plain-text files cannot be read from the middle, so this storage returns null;
+     * {@link CompressedStorage} reads only the blocks that hold the range.
+     *
+     * @param from The index of the first task to read.
+     * @param to The index after the last task to read.
+     * @return The tasks in the range, or null if they cannot be read on their own.
+     * @throws NovaException If the file cannot be read.
+     */
+    public List<Task> readTasks(int from, int to) throws NovaException {
+        return null;
+    }
+
+    /**
+     * Appends a single task to the end of the storage file.
+     *
+     * @param task The task to append.
+     * @throws NovaException If there is an error saving the task.
+     */
+    public void append(Task task) throws NovaException {
+        try (BufferedWriter writer = openAppender()) {
+            writeTask(writer, task);
+        } catch (IOException e) {
+            throw new NovaException("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens a writer that appends records to the end of the storage file.
+     *
+     * Use {@link #writeTask} to write each record; everything is flushed when the writer is closed.
+     * If the file is shared, it stays locked until then.
+     *
+     * @return A writer positioned at the end of the storage file.
+     * @throws NovaException If the file cannot be opened.
+     */
+    public BufferedWriter openAppender() throws NovaException {
+        SharedFile.Lock fileLock = lockFile();
+        if (fileLock == null) {
+            return openWriter();
+        }
+        try {
+            return new BufferedWriter(openWriter()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        try {
+                            fileLock.close();
+                        } catch (NovaException e) {
+                            throw new IOException(e.getMessage());
+                        }
+                    }
+                }
+            };
+        } catch (NovaException e) {
+            fileLock.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a writer positioned at the end of the storage file, without locking it.
+     *
+     * @return The writer.
+     * @throws NovaException If the file cannot be opened.
+     */
+    protected BufferedWriter openWriter() throws NovaException {
         try {
-            FileWriter writer = new FileWriter(filePath);
-            for (Task task : tasks) {
-                writer.write(formatTask(task) + System.lineSeparator());
+            File file = new File(filePath);
+            boolean needsLineBreak = false;
+            if (file.length() > 0) {
+                try (RandomAccessFile existing = new RandomAccessFile(file, "r")) {
+                    existing.seek(existing.length() - 1);
+                    needsLineBreak = existing.read() != '\n';
+                }
+            }
+            BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, true));
+            if (needsLineBreak) {
+                writer.write(System.lineSeparator());
             }
-            writer.close();
+            return writer;
         } catch (IOException e) {
             throw new NovaException("Error saving tasks: " + e.getMessage());
         }
     }
 
+    /**
+     * Writes one task record to a writer opened by {@link #openAppender}.
+     *
+     * @param writer The writer to write to.
+     * @param task The task to write.
+     * @throws IOException If the record cannot be written.
+     */
+    public void writeTask(BufferedWriter writer, Task task) throws IOException {
+        writer.write(formatTask(task));
+        writer.write(System.lineSeparator());
+    }
+
     /**
      * Formats a task as a string for saving to the file.
      *
      * @param task The task to format.
      * @return The formatted task string.
      */
-    private String formatTask(Task task) {
+    String formatTask(Task task) {
         String type = "";
         if (task instanceof Todo) {
             type = "T";
@@ -129,6 +520,8 @@ public class Storage {
             type = "D";
         } else if (task instanceof Event) {
             type = "E";
+        } else if (task instanceof Recurring) {
+            type = "R";
         }
         int isDone = task.isDone ? 1 : 0;
         String formatted = type + " | " + isDone + " | " + task.description;
@@ -136,6 +529,14 @@ public class Storage {
             formatted += " | " + ((Deadline) task).by.substring(4).trim();
         } else if (task instanceof Event) {
             formatted += " | " + ((Event) task).from.substring(6).trim() + " | " + ((Event) task).to.substring(4).trim();
+        } else if (task instanceof Recurring) {
+            Recurring recurring = (Recurring) task;
+            List<LocalDate> doneDates = recurring.getDoneDates();
+            StringBuilder dates = new StringBuilder();
+            for (LocalDate date : doneDates) {
+                dates.append(dates.length() == 0 ? "" : ",").append(date);
+            }
+            formatted += " | " + recurring.start + " | " + recurring.intervalDays + " | " + dates;
         }
         return formatted;
     }
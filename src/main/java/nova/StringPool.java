@@ -0,0 +1,30 @@
+package nova;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * A pool that stores each distinct piece of task text only once.
+ *
+ * Entries are held weakly, so text that is no longer used by any task
+ * (for example after a delete) can still be garbage collected.
+ */
+public class StringPool {
+    private final WeakHashMap<String, WeakReference<String>> pool = new WeakHashMap<>();
+
+    /**
+     * Returns the pooled copy of the given text, adding it to the pool if it is new.
+     *
+     * @param text The text to intern.
+     * @return A string equal to {@code text} that is shared with all other equal interned text.
+     */
+    public synchronized String intern(String text) {
+        WeakReference<String> ref = pool.get(text);
+        String pooled = ref == null ? null : ref.get();
+        if (pooled == null) {
+            pool.put(text, new WeakReference<>(text));
+            pooled = text;
+        }
+        return pooled;
+    }
+}
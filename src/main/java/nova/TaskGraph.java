@@ -0,0 +1,364 @@
+package nova;
+
+import nova.task.Task;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The dependencies between tasks.
+ *
+ * Each task in the graph counts how many of its prerequisites are not yet done.
+ * The counters are updated as tasks are marked and deleted, and a task enters or
+ * leaves the set of ready tasks whenever its counter reaches or leaves zero, so
+ * listing the ready tasks never walks the graph or the list. Tasks also keep a
+ * topological order that is repaired locally when an edge is added (the
+ * Pearce-Kelly algorithm), so cycle detection only visits the part of the graph
+ * between the two tasks.
+ *
+ * The dependency file is read again whenever it has changed since this graph last
+ * read or wrote it, so a graph never overwrites dependencies saved by another
+ * process sharing the data file.
+ */
+public class TaskGraph implements TaskListListener {
+    private final TaskList tasks;
+    private final Path dependencyPath;
+    private final Map<Task, Node> nodes = new IdentityHashMap<>();
+    private final Set<Task> readyTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean isLoaded;
+    private int nextOrder;
+    private FileTime knownModified;
+    private long knownSize = -1;
+
+    private static class Node {
+        private Task task;
+        private final Set<Node> prerequisites = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<Node> dependents = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean isDone;
+        private int unmetCount;
+        private int order;
+
+        Node(Task task, int order) {
+            this.task = task;
+            this.isDone = task.isDone;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Constructs a new TaskGraph kept alongside the given data file.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param tasks The task list the graph relates.
+     */
+    public TaskGraph(String filePath, TaskList tasks) {
+        this.tasks = tasks;
+        this.dependencyPath = Paths.get(filePath + ".deps");
+    }
+
+    /**
+     * Loads the saved dependencies and the ready tasks, once the task list has fully loaded,
+     * and again whenever the dependency file has been changed by another process.
+     *
+     * If the file cannot be read, the graph is left unloaded, so the next call tries again
+     * rather than using the dependencies read before the error.
+     *
+     * @throws NovaException If the dependency file cannot be read or holds a cycle.
+     */
+    public void ensureLoaded() throws NovaException {
+        // Wait for the load before locking, and lock the list first, as its listeners do.
+        ArrayList<Task> allTasks = tasks.getTasks();
+        synchronized (tasks) {
+            synchronized (this) {
+                if (isLoaded && isFileUnchanged()) {
+                    return;
+                }
+                nodes.clear();
+                readyTasks.clear();
+                nextOrder = 0;
+                isLoaded = true;
+                rememberFile();
+                for (Task task : allTasks) {
+                    refreshReady(task, null);
+                }
+                if (!Files.exists(dependencyPath)) {
+                    return;
+                }
+                try (BufferedReader reader = Files.newBufferedReader(dependencyPath, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String[] edge = line.trim().split(" ");
+                        addDependency(allTasks.get(Integer.parseInt(edge[1])),
+                                allTasks.get(Integer.parseInt(edge[0])));
+                    }
+                } catch (IOException | NumberFormatException | IndexOutOfBoundsException | NovaException e) {
+                    isLoaded = false;
+                    nodes.clear();
+                    readyTasks.clear();
+                    throw new NovaException("Error loading dependencies: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private boolean isFileUnchanged() {
+        try {
+            if (!Files.exists(dependencyPath)) {
+                return knownSize < 0;
+            }
+            return Files.size(dependencyPath) == knownSize
+                    && Files.getLastModifiedTime(dependencyPath).equals(knownModified);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records the size and modification time of the dependency file as last seen.
+     */
+    private void rememberFile() {
+        try {
+            knownSize = Files.exists(dependencyPath) ? Files.size(dependencyPath) : -1;
+            knownModified = knownSize < 0 ? null : Files.getLastModifiedTime(dependencyPath);
+        } catch (IOException e) {
+            knownSize = -1;
+            knownModified = null;
+        }
+    }
+
+    /**
+     * Makes one task depend on another.
+     *
+     * @param dependent The task that is blocked.
+     * @param prerequisite The task that must be done first.
+     * @return false if the dependency already existed.
+     * @throws NovaException If the dependency would create a cycle.
+     */
+    public synchronized boolean addDependency(Task dependent, Task prerequisite) throws NovaException {
+        if (dependent == prerequisite) {
+            throw new NovaException("A task cannot depend on itself.");
+        }
+        Node to = nodeOf(dependent);
+        Node from = nodeOf(prerequisite);
+        if (from.dependents.contains(to)) {
+            return false;
+        }
+        if (from.order > to.order) {
+            reorder(from, to);
+        }
+        from.dependents.add(to);
+        to.prerequisites.add(from);
+        if (!from.isDone) {
+            to.unmetCount++;
+            refreshReady(to.task, to);
+        }
+        return true;
+    }
+
+    /**
+     * Restores the topological order before adding an edge {@code from -> to} where
+     * {@code to} currently comes first. Only tasks ordered between the two are visited.
+     *
+     * @throws NovaException If {@code from} is reachable from {@code to}, i.e. the edge closes a cycle.
+     */
+    private void reorder(Node from, Node to) throws NovaException {
+        List<Node> forward = collect(to, from.order, true);
+        if (forward.contains(from)) {
+            throw new NovaException("This dependency would create a cycle.");
+        }
+        List<Node> backward = collect(from, to.order, false);
+        forward.sort((a, b) -> Integer.compare(a.order, b.order));
+        backward.sort((a, b) -> Integer.compare(a.order, b.order));
+        List<Integer> orders = new ArrayList<>();
+        List<Node> affected = new ArrayList<>(backward);
+        affected.addAll(forward);
+        for (Node node : affected) {
+            orders.add(node.order);
+        }
+        Collections.sort(orders);
+        for (int i = 0; i < affected.size(); i++) {
+            affected.get(i).order = orders.get(i);
+        }
+    }
+
+    /**
+     * Collects the nodes reachable from {@code start} whose order lies within the affected region.
+     *
+     * @param start The node to search from.
+     * @param bound The order limit: an upper bound going forwards, a lower bound going backwards.
+     * @param isForward Whether to follow dependents (forwards) or prerequisites (backwards).
+     */
+    private List<Node> collect(Node start, int bound, boolean isForward) {
+        List<Node> visited = new ArrayList<>();
+        Set<Node> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        seen.add(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            visited.add(node);
+            for (Node next : isForward ? node.dependents : node.prerequisites) {
+                boolean isInRegion = isForward ? next.order <= bound : next.order >= bound;
+                if (isInRegion && seen.add(next)) {
+                    stack.push(next);
+                }
+            }
+        }
+        return visited;
+    }
+
+    private Node nodeOf(Task task) {
+        return nodes.computeIfAbsent(task, t -> new Node(t, nextOrder++));
+    }
+
+    /**
+     * Returns whether a task is not done and all of its prerequisites are done.
+     *
+     * @param task The task to check.
+     * @return true if the task is ready to be worked on.
+     */
+    public synchronized boolean isReady(Task task) {
+        Node node = nodes.get(task);
+        return !task.isDone && (node == null || node.unmetCount == 0);
+    }
+
+    /**
+     * Returns the tasks that are not done and whose prerequisites are all done.
+     *
+     * @return The ready tasks, in no particular order.
+     */
+    public synchronized List<Task> getReadyTasks() {
+        return new ArrayList<>(readyTasks);
+    }
+
+    /**
+     * Adds a task to or removes it from the ready set to match its state.
+     * Until the dependencies are loaded, the set is left empty; it is filled on load.
+     */
+    private void refreshReady(Task task, Node node) {
+        if (!isLoaded) {
+            return;
+        }
+        if (!task.isDone && (node == null || node.unmetCount == 0)) {
+            readyTasks.add(task);
+        } else {
+            readyTasks.remove(task);
+        }
+    }
+
+    @Override
+    public synchronized void taskAdded(Task task) {
+        refreshReady(task, null);
+    }
+
+    @Override
+    public synchronized void taskMarked(int index, Task task) {
+        Node node = nodes.get(task);
+        refreshReady(task, node);
+        if (node != null) {
+            updateDone(node);
+        }
+    }
+
+    /**
+     * Brings a node's done state in line with its task, adjusting its dependents' counters.
+     */
+    private void updateDone(Node node) {
+        if (node.isDone == node.task.isDone) {
+            return;
+        }
+        node.isDone = node.task.isDone;
+        for (Node dependent : node.dependents) {
+            dependent.unmetCount += node.isDone ? -1 : 1;
+            refreshReady(dependent.task, dependent);
+        }
+    }
+
+    @Override
+    public void taskUpdated(int index, Task task) {
+    }
+
+    /**
+     * Moves the dependencies of the replaced task over to the task that replaced it.
+     */
+    @Override
+    public synchronized void taskReplaced(int index, Task replaced, Task task) {
+        readyTasks.remove(replaced);
+        Node node = nodes.remove(replaced);
+        if (node != null) {
+            node.task = task;
+            nodes.put(task, node);
+            updateDone(node);
+        }
+        refreshReady(task, node);
+    }
+
+    @Override
+    public synchronized void taskRemoved(int index, Task task) {
+        readyTasks.remove(task);
+        Node node = nodes.remove(task);
+        if (node == null) {
+            return;
+        }
+        for (Node dependent : node.dependents) {
+            dependent.prerequisites.remove(node);
+            if (!node.isDone) {
+                dependent.unmetCount--;
+                refreshReady(dependent.task, dependent);
+            }
+            removeIfIsolated(dependent);
+        }
+        for (Node prerequisite : node.prerequisites) {
+            prerequisite.dependents.remove(node);
+            removeIfIsolated(prerequisite);
+        }
+    }
+
+    private void removeIfIsolated(Node node) {
+        if (node.prerequisites.isEmpty() && node.dependents.isEmpty()) {
+            nodes.remove(node.task);
+        }
+    }
+
+    /**
+     * Saves the dependencies as pairs of task indices.
+     *
+     * @param allTasks The full task list, used to number the tasks.
+     * @throws NovaException If the dependency file cannot be written.
+     */
+    public synchronized void save(List<Task> allTasks) throws NovaException {
+        if (nodes.isEmpty() && !Files.exists(dependencyPath)) {
+            return;
+        }
+        Map<Task, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < allTasks.size(); i++) {
+            if (nodes.containsKey(allTasks.get(i))) {
+                indices.put(allTasks.get(i), i);
+            }
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(dependencyPath, StandardCharsets.UTF_8)) {
+            for (Node node : nodes.values()) {
+                for (Node dependent : node.dependents) {
+                    writer.write(indices.get(node.task) + " " + indices.get(dependent.task));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new NovaException("Error saving dependencies: " + e.getMessage());
+        }
+        rememberFile();
+    }
+}
@@ -0,0 +1,267 @@
+package nova;
+
+import nova.task.Task;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every version of the task list so that past states can be queried.
+ *
+ * Each mutation is encoded as a timestamped delta. Deltas are buffered and written
+ * together when {@link #flush()} is called at the end of each command. Once the
+ * deltas since the last checkpoint take as many bytes as that checkpoint (and at
+ * least {@value #MIN_CHECKPOINT_BYTES}), the buffered deltas are dropped, and a
+ * full checkpoint of the list is written at the flush instead. Its position and
+ * length are recorded in a small index file. A bulk import therefore costs one
+ * checkpoint rather than one delta per task, and the history stays linear in the
+ * number of mutations. To rebuild the list at a past time, only the nearest earlier
+ * checkpoint and the deltas after it are read.
+ *
+ * Checkpoints are postponed while the list is still loading, so recording a
+ * mutation never waits for the load. Changes merged from a data file shared with
+ * other processes are skipped, as the process that made them has recorded them.
+ */
+public class TaskHistory implements TaskListListener {
+    private static final long MIN_CHECKPOINT_BYTES = 64 * 1024;
+
+    private final Storage storage;
+    private final TaskList tasks;
+    private final Path historyPath;
+    private final Path indexPath;
+    private final ByteArrayOutputStream pendingDeltas = new ByteArrayOutputStream();
+    private boolean hasCheckpoint;
+    private boolean isCheckpointDue;
+    private long bytesSinceCheckpoint;
+    private long lastCheckpointBytes;
+
+    /**
+     * Constructs a new TaskHistory kept alongside the given data file.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param storage The storage used to format and parse task records.
+     * @param tasks The live task list, used when writing checkpoints.
+     */
+    public TaskHistory(String filePath, Storage storage, TaskList tasks) {
+        this.storage = storage;
+        this.tasks = tasks;
+        this.historyPath = Paths.get(filePath + ".history");
+        this.indexPath = Paths.get(filePath + ".history.idx");
+        try {
+            restoreCheckpointSizes();
+        } catch (IOException | NovaException | NumberFormatException | IndexOutOfBoundsException e) {
+            hasCheckpoint = false;
+        }
+    }
+
+    /**
+     * Reads the size of the last checkpoint and of the deltas after it from an existing history.
+     */
+    private void restoreCheckpointSizes() throws IOException, NovaException {
+        long offset = findCheckpoint(Long.MAX_VALUE);
+        long size = Files.size(historyPath);
+        String[] entry = lastIndexEntry();
+        // Older index files do not record the checkpoint length; count the rest as checkpoint.
+        lastCheckpointBytes = entry.length > 2 ? Long.parseLong(entry[2]) : size - offset;
+        bytesSinceCheckpoint = Math.max(0, size - offset - lastCheckpointBytes);
+        hasCheckpoint = true;
+    }
+
+    private String[] lastIndexEntry() throws IOException {
+        String last = "";
+        try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    last = line;
+                }
+            }
+        }
+        return last.split(" ");
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        record("A " + storage.formatTask(task));
+    }
+
+    @Override
+    public void taskMarked(int index, Task task) {
+        record("M " + index + " " + (task.isDone ? 1 : 0));
+    }
+
+    @Override
+    public void taskUpdated(int index, Task task) {
+        record("U " + index + " " + storage.formatTask(task));
+    }
+
+    @Override
+    public void taskRemoved(int index, Task task) {
+        record("R " + index);
+    }
+
+    /**
+     * Buffers a delta, or notes that a checkpoint of the whole list is due instead.
+     *
+     * Once a checkpoint is due, the buffered deltas are dropped, as the checkpoint
+     * written at the next flush already contains their changes. While the list is
+     * still loading, checkpoints are postponed and the deltas are kept.
+     *
+     * @param delta The encoded mutation.
+     */
+    private synchronized void record(String delta) {
+        if (tasks.isApplyingExternalChanges() || isCheckpointDue) {
+            return;
+        }
+        byte[] line = (System.currentTimeMillis() + " " + delta + "\n").getBytes(StandardCharsets.UTF_8);
+        pendingDeltas.write(line, 0, line.length);
+        long threshold = Math.max(MIN_CHECKPOINT_BYTES, lastCheckpointBytes);
+        boolean isDue = !hasCheckpoint || bytesSinceCheckpoint + pendingDeltas.size() >= threshold;
+        if (isDue && !tasks.isLoading()) {
+            isCheckpointDue = true;
+            pendingDeltas.reset();
+        } else if (pendingDeltas.size() >= MIN_CHECKPOINT_BYTES) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered deltas, or the checkpoint that replaces them, to the history file.
+     */
+    public synchronized void flush() {
+        try {
+            if (isCheckpointDue) {
+                writeCheckpoint(System.currentTimeMillis());
+            } else if (pendingDeltas.size() > 0) {
+                try (OutputStream out = openHistory()) {
+                    pendingDeltas.writeTo(out);
+                }
+                bytesSinceCheckpoint += pendingDeltas.size();
+            }
+        } catch (IOException e) {
+            System.err.println("Error recording history: " + e.getMessage());
+        } finally {
+            isCheckpointDue = false;
+            pendingDeltas.reset();
+        }
+    }
+
+    private void writeCheckpoint(long time) throws IOException {
+        long offset = Files.exists(historyPath) ? Files.size(historyPath) : 0;
+        ArrayList<Task> snapshot = tasks.getTasks();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(openHistory(), StandardCharsets.UTF_8))) {
+            writer.write(time + " C " + snapshot.size() + "\n");
+            for (Task task : snapshot) {
+                writer.write(storage.formatTask(task) + "\n");
+            }
+        }
+        lastCheckpointBytes = Files.size(historyPath) - offset;
+        Files.writeString(indexPath, time + " " + offset + " " + lastCheckpointBytes + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        hasCheckpoint = true;
+        bytesSinceCheckpoint = 0;
+    }
+
+    private OutputStream openHistory() throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(historyPath,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+    }
+
+    /**
+     * Rebuilds the task list as it was at the given time.
+     *
+     * @param time The point in time, in milliseconds since the epoch.
+     * @return The tasks as they were at that time.
+     * @throws NovaException If there is no history that far back or it cannot be read.
+     */
+    public synchronized List<Task> tasksAsOf(long time) throws NovaException {
+        flush();
+        try {
+            long offset = findCheckpoint(time);
+            try (FileChannel channel = FileChannel.open(historyPath)) {
+                channel.position(offset);
+                BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+                return replay(reader, time);
+            }
+        } catch (IOException e) {
+            throw new NovaException("Error reading history: " + e.getMessage());
+        } catch (NumberFormatException | IndexOutOfBoundsException | NullPointerException e) {
+            throw new NovaException("The history file is corrupted.");
+        }
+    }
+
+    /**
+     * Returns the file offset of the latest checkpoint taken at or before the given time.
+     */
+    private long findCheckpoint(long time) throws IOException, NovaException {
+        long offset = -1;
+        if (Files.exists(indexPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] entry = line.split(" ");
+                    if (Long.parseLong(entry[0]) > time) {
+                        break;
+                    }
+                    offset = Long.parseLong(entry[1]);
+                }
+            }
+        }
+        if (offset < 0) {
+            throw new NovaException("No history is recorded that far back.");
+        }
+        return offset;
+    }
+
+    private List<Task> replay(BufferedReader reader, long time) throws IOException, NovaException {
+        ArrayList<Task> state = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] parts = line.split(" ", 3);
+            if (Long.parseLong(parts[0]) > time) {
+                break;
+            }
+            switch (parts[1]) {
+            case "C":
+                state.clear();
+                int count = Integer.parseInt(parts[2]);
+                for (int i = 0; i < count; i++) {
+                    state.add(storage.parseTask(reader.readLine()));
+                }
+                break;
+            case "A":
+                state.add(storage.parseTask(parts[2]));
+                break;
+            case "M":
+                String[] mark = parts[2].split(" ");
+                state.get(Integer.parseInt(mark[0])).markAsDone(mark[1].equals("1"));
+                break;
+            case "U":
+                String[] update = parts[2].split(" ", 2);
+                state.set(Integer.parseInt(update[0]), storage.parseTask(update[1]));
+                break;
+            case "R":
+                state.remove(Integer.parseInt(parts[2]));
+                break;
+            default:
+                throw new NovaException("Corrupted history entry: " + line);
+            }
+        }
+        return state;
+    }
+}
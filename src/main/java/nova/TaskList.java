@@ -1,13 +1,60 @@
 package nova;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import nova.task.Recurring;
 import nova.task.Task;
 
 /**
  * A class representing a list of tasks.
+ *
+ * The list can be filled in the background while it is already in use. Until
+ * loading finishes, newly added tasks are held back and placed after the loaded
+ * ones, and reads wait only until the part of the list they need is available.
+ *
+ * The list can also be viewed in a sorted order. The view is kept in
+ * order-statistic trees that are updated on every add, mark and delete, so the
+ * task at a given view position is found in O(log n) without re-sorting.
  */
 public class TaskList {
     private final ArrayList<Task> tasks;
+    private final ArrayList<TaskListListener> listeners = new ArrayList<>();
+    private final ArrayList<Task> pendingTasks = new ArrayList<>();
+    private boolean isLoading;
+    private boolean isApplyingExternalChanges;
+    private int expectedCount = -1;
+    private SortOrder sortOrder;
+    private final IdentityHashMap<Task, ViewEntry> viewEntries = new IdentityHashMap<>();
+    private OrderStatisticTree<ViewEntry> addedView;
+    private OrderStatisticTree<ViewEntry> sortedView;
+    private long nextSequence;
+
+    /**
+     * The position of a task in the sorted views, captured when it was last inserted.
+     */
+    private static class ViewEntry {
+        private static final Comparator<ViewEntry> BY_SEQUENCE = Comparator.comparingLong(e -> e.sequence);
+        private static final Comparator<ViewEntry> BY_KEY = Comparator
+                .comparing((ViewEntry e) -> e.key, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(BY_SEQUENCE);
+
+        private final Task task;
+        private final long sequence;
+        private final String key;
+
+        ViewEntry(Task task, long sequence, String key) {
+            this.task = task;
+            this.sequence = sequence;
+            this.key = key;
+        }
+    }
 
     public TaskList() {
         tasks = new ArrayList<>();
@@ -23,21 +70,331 @@ public class TaskList {
     }
 
     /**
-     * Returns the list of tasks.
+     * Returns the list of tasks, waiting for loading to finish if necessary.
      *
      * @return The list of tasks.
      */
-    public ArrayList<Task> getTasks() {
+    public synchronized ArrayList<Task> getTasks() {
+        awaitLoaded(Integer.MAX_VALUE);
         return tasks;
     }
 
+    /**
+     * Registers a listener to be notified of every mutation to the list.
+     *
+     * @param listener The listener to register.
+     */
+    public synchronized void addListener(TaskListListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Marks the list as being loaded in the background.
+     */
+    synchronized void beginLoading() {
+        isLoading = true;
+        expectedCount = -1;
+    }
+
+    /**
+     * Returns whether the list is still being loaded in the background.
+     *
+     * @return true if loading has not finished.
+     */
+    public synchronized boolean isLoading() {
+        return isLoading;
+    }
+
+    /**
+     * Applies changes that another process has already made to the storage file.
+     *
+     * Listeners are notified as usual, but can check {@link #isApplyingExternalChanges()}
+     * to avoid recording the changes a second time.
+     *
+     * @param changes The mutations to make to this list.
+     */
+    public synchronized void applyExternalChanges(Runnable changes) {
+        isApplyingExternalChanges = true;
+        try {
+            changes.run();
+        } finally {
+            isApplyingExternalChanges = false;
+        }
+    }
+
+    /**
+     * Returns whether the mutation being reported was made by another process.
+     *
+     * @return true while {@link #applyExternalChanges} is running.
+     */
+    public synchronized boolean isApplyingExternalChanges() {
+        return isApplyingExternalChanges;
+    }
+
+    /**
+     * Records how many tasks the background load will produce.
+     *
+     * @param count The number of tasks being loaded.
+     */
+    synchronized void setExpectedCount(int count) {
+        expectedCount = count;
+        notifyAll();
+    }
+
+    /**
+     * Appends a batch of tasks read by the background load.
+     *
+     * @param batch The tasks read from storage, in file order.
+     */
+    synchronized void addLoadedTasks(List<Task> batch) {
+        tasks.addAll(batch);
+        notifyAll();
+    }
+
+    /**
+     * Ends the background load and places tasks added in the meantime after the loaded ones.
+     *
+     * @param isSuccessful Whether loading completed; if not, the partially loaded tasks are discarded.
+     */
+    synchronized void finishLoading(boolean isSuccessful) {
+        if (!isSuccessful) {
+            tasks.clear();
+        }
+        tasks.addAll(pendingTasks);
+        pendingTasks.clear();
+        isLoading = false;
+        notifyAll();
+    }
+
+    /**
+     * Changes the order in which the list is viewed.
+     *
+     * @param order The new sort order, or null to view tasks in the order they were added.
+     */
+    public synchronized void setSortOrder(SortOrder order) {
+        awaitLoaded(Integer.MAX_VALUE);
+        sortOrder = order;
+        viewEntries.clear();
+        addedView = null;
+        sortedView = null;
+        if (order == null) {
+            return;
+        }
+        addedView = new OrderStatisticTree<>(ViewEntry.BY_SEQUENCE);
+        sortedView = new OrderStatisticTree<>(ViewEntry.BY_KEY);
+        for (Task task : tasks) {
+            insertIntoViews(task);
+        }
+    }
+
+    /**
+     * Returns the order in which the list is viewed.
+     *
+     * @return The active sort order, or null if tasks are viewed in the order they were added.
+     */
+    public synchronized SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    /**
+     * Converts a position in the active view to an index in the list.
+     *
+     * @param position The zero-based position in the active view.
+     * @return The index of the task at that position.
+     */
+    public synchronized int toIndex(int position) {
+        if (sortOrder == null) {
+            return position;
+        }
+        return addedView.rank(sortedView.get(position));
+    }
+
+    /**
+     * Finds the positions of the given tasks in the active view.
+     *
+     * In a sorted view, each position is found in O(log n). Otherwise the list is
+     * scanned once, stopping as soon as every task has been found.
+     *
+     * @param wanted The tasks to locate.
+     * @return The zero-based view position of each task that is in the list.
+     */
+    public synchronized Map<Task, Integer> positionsOf(Collection<Task> wanted) {
+        awaitLoaded(Integer.MAX_VALUE);
+        Map<Task, Integer> positions = new IdentityHashMap<>();
+        if (sortOrder != null) {
+            for (Task task : wanted) {
+                ViewEntry entry = viewEntries.get(task);
+                if (entry != null) {
+                    positions.put(task, sortedView.rank(entry));
+                }
+            }
+            return positions;
+        }
+        Set<Task> remaining = Collections.newSetFromMap(new IdentityHashMap<>());
+        remaining.addAll(wanted);
+        for (int i = 0; i < tasks.size() && !remaining.isEmpty(); i++) {
+            if (remaining.remove(tasks.get(i))) {
+                positions.put(tasks.get(i), i);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Returns a range of tasks in the order of the active view.
+     *
+     * @param from The first position to include.
+     * @param to The position after the last one to include.
+     * @return The tasks in that range.
+     */
+    public synchronized List<Task> getViewTasks(int from, int to) {
+        awaitLoaded(Integer.MAX_VALUE);
+        if (sortOrder == null) {
+            return from == 0 && to == tasks.size() ? tasks : new ArrayList<>(tasks.subList(from, to));
+        }
+        ArrayList<Task> view = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            view.add(sortedView.get(position).task);
+        }
+        return view;
+    }
+
+    private void insertIntoViews(Task task) {
+        ViewEntry entry = new ViewEntry(task, nextSequence++, sortOrder.keyOf(task));
+        viewEntries.put(task, entry);
+        addedView.insert(entry);
+        sortedView.insert(entry);
+    }
+
+    private void updateViews(Task task) {
+        ViewEntry entry = viewEntries.get(task);
+        String key = sortOrder.keyOf(task);
+        if (key == null ? entry.key == null : key.equals(entry.key)) {
+            return;
+        }
+        sortedView.remove(entry);
+        ViewEntry updated = new ViewEntry(task, entry.sequence, key);
+        viewEntries.put(task, updated);
+        sortedView.insert(updated);
+    }
+
+    private void replaceInViews(Task replaced, Task task) {
+        ViewEntry entry = viewEntries.remove(replaced);
+        ViewEntry updated = new ViewEntry(task, entry.sequence, sortOrder.keyOf(task));
+        viewEntries.put(task, updated);
+        addedView.remove(entry);
+        addedView.insert(updated);
+        sortedView.remove(entry);
+        sortedView.insert(updated);
+    }
+
+    private void removeFromViews(Task task) {
+        ViewEntry entry = viewEntries.remove(task);
+        addedView.remove(entry);
+        sortedView.remove(entry);
+    }
+
+    /**
+     * Waits until at least {@code count} tasks are loaded or loading has finished.
+     *
+     * @param count The number of leading tasks that must be available.
+     */
+    private void awaitLoaded(int count) {
+        while (isLoading && tasks.size() < count) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
     /**
      * Adds a task to the list.
      *
      * @param task The task to add.
      */
-    public void addTask(Task task) {
-        tasks.add(task);
+    public synchronized void addTask(Task task) {
+        if (isLoading) {
+            pendingTasks.add(task);
+        } else {
+            tasks.add(task);
+        }
+        if (sortOrder != null) {
+            insertIntoViews(task);
+        }
+        for (TaskListListener listener : listeners) {
+            listener.taskAdded(task);
+        }
+    }
+
+    /**
+     * Adds a batch of tasks to the end of the list.
+     *
+     * @param batch The tasks to add, in order.
+     */
+    public synchronized void addTasks(List<Task> batch) {
+        for (Task task : batch) {
+            addTask(task);
+        }
+    }
+
+    /**
+     * Marks a task in the list as done or not done.
+     *
+     * @param index The index of the task to mark.
+     * @param isDone Whether the task is done or not done.
+     */
+    public synchronized void markTask(int index, boolean isDone) {
+        awaitLoaded(index + 1);
+        Task task = tasks.get(index);
+        task.markAsDone(isDone);
+        if (sortOrder != null) {
+            updateViews(task);
+        }
+        for (TaskListListener listener : listeners) {
+            listener.taskMarked(index, task);
+        }
+    }
+
+    /**
+     * Marks one occurrence of a recurring task as done or not done.
+     *
+     * @param index The index of the recurring task.
+     * @param date The date of the occurrence.
+     * @param isDone Whether the occurrence is done.
+     * @throws NovaException If the task is not recurring or does not occur on that date.
+     */
+    public synchronized void markOccurrence(int index, LocalDate date, boolean isDone) throws NovaException {
+        awaitLoaded(index + 1);
+        Task task = tasks.get(index);
+        if (!(task instanceof Recurring)) {
+            throw new NovaException("Only recurring tasks can be marked for a single date.");
+        }
+        if (!((Recurring) task).markOccurrence(date, isDone)) {
+            throw new NovaException("This task does not occur on " + date + ".");
+        }
+        for (TaskListListener listener : listeners) {
+            listener.taskUpdated(index, task);
+        }
+    }
+
+    /**
+     * Replaces the task at the given index.
+     *
+     * @param index The index of the task to replace.
+     * @param task The new task.
+     */
+    public synchronized void replaceTask(int index, Task task) {
+        awaitLoaded(index + 1);
+        Task replaced = tasks.set(index, task);
+        if (sortOrder != null) {
+            replaceInViews(replaced, task);
+        }
+        for (TaskListListener listener : listeners) {
+            listener.taskReplaced(index, replaced, task);
+        }
     }
 
     /**
@@ -45,26 +402,44 @@ public class TaskList {
      *
      * @param index The index of the task to remove.
      */
-    public void removeTask(int index) {
-        tasks.remove(index);
+    public synchronized void removeTask(int index) {
+        awaitLoaded(Integer.MAX_VALUE);
+        Task task = tasks.remove(index);
+        if (sortOrder != null) {
+            removeFromViews(task);
+        }
+        for (TaskListListener listener : listeners) {
+            listener.taskRemoved(index, task);
+        }
     }
 
     /**
-     * Gets a task from the list.
+     * Gets a task from the list, waiting only until that task has been loaded.
      *
      * @param index The index of the task to get.
      * @return The task at the given index.
      */
-    public Task getTask(int index) {
+    public synchronized Task getTask(int index) {
+        awaitLoaded(index + 1);
         return tasks.get(index);
     }
 
     /**
      * Returns the number of tasks in the list.
      *
+     * While loading, this waits only until the number of stored tasks is known.
+     *
      * @return The number of tasks in the list.
      */
-    public int size() {
-        return tasks.size();
+    public synchronized int size() {
+        while (isLoading && expectedCount < 0) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return isLoading ? expectedCount + pendingTasks.size() : tasks.size();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package nova;
+
+import nova.task.Task;
+
+/**
+ * A listener that is notified of every mutation made to a {@link TaskList}.
+ */
+public interface TaskListListener {
+
+    /**
+     * Called after a task has been appended to the list.
+     *
+     * @param task The task that was added.
+     */
+    void taskAdded(Task task);
+
+    /**
+     * Called after a task has been marked as done or not done.
+     *
+     * @param index The index of the marked task.
+     * @param task The task that was marked.
+     */
+    void taskMarked(int index, Task task);
+
+    /**
+     * Called after a task has changed in a way other than being marked,
+     * such as an occurrence of a recurring task being marked.
+     *
+     * @param index The index of the changed task.
+     * @param task The task that changed.
+     */
+    void taskUpdated(int index, Task task);
+
+    /**
+     * Called after the task at an index has been replaced by a different task object.
+     *
+     * By default this is reported as an update, for listeners that do not keep
+     * references to the tasks themselves.
+     *
+     * @param index The index of the replaced task.
+     * @param replaced The task that was in the list before.
+     * @param task The task now in the list.
+     */
+    default void taskReplaced(int index, Task replaced, Task task) {
+        taskUpdated(index, task);
+    }
+
+    /**
+     * Called after a task has been removed from the list.
+     *
+     * @param index The index the task was removed from.
+     * @param task The task that was removed.
+     */
+    void taskRemoved(int index, Task task);
+}
@@ -0,0 +1,481 @@
+package nova;
+
+import nova.task.Deadline;
+import nova.task.Event;
+import nova.task.Recurring;
+import nova.task.Task;
+import nova.task.Todo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves tasks in and out of Nova as CSV or JSON Lines.
+ *
+ * Both directions stream one record at a time, so files far larger than memory
+ * can be exchanged. Imports run as a pipeline of read, parse, validate and
+ * batch-append, with all new records written to storage through a single writer.
+ * The format is chosen by file extension: {@code .csv} or {@code .jsonl}.
+ */
+public class TaskTransfer {
+    private static final int IMPORT_BATCH_SIZE = 1024;
+    private static final int MAX_RECORD_LINES = 64;
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+    private static final String[] COLUMNS = {"type", "done", "description", "by", "from", "to", "every", "completed"};
+
+    private final Storage storage;
+
+    /**
+     * Constructs a new TaskTransfer.
+     *
+     * @param storage The storage imported tasks are persisted to.
+     */
+    public TaskTransfer(Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * The outcome of an import.
+     */
+    public static class Summary {
+        public final int imported;
+        public final int skipped;
+
+        Summary(int imported, int skipped) {
+            this.imported = imported;
+            this.skipped = skipped;
+        }
+    }
+
+    /**
+     * Writes tasks to a CSV or JSON Lines file.
+     *
+     * @param tasks The tasks to export.
+     * @param path The file to write.
+     * @return The number of tasks exported.
+     * @throws NovaException If the format is unsupported or the file cannot be written.
+     */
+    public int exportTasks(List<Task> tasks, String path) throws NovaException {
+        boolean isCsv = isCsv(path);
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+            if (isCsv) {
+                writer.write(String.join(",", COLUMNS));
+                writer.newLine();
+            }
+            for (Task task : tasks) {
+                Map<String, String> fields = toFields(task);
+                writer.write(isCsv ? toCsv(fields) : toJson(fields));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new NovaException("Error exporting tasks: " + e.getMessage());
+        }
+        return tasks.size();
+    }
+
+    /**
+     * Reads tasks from a CSV or JSON Lines file and appends them to the list.
+     *
+     * Records that fail validation are skipped rather than aborting the import.
+     *
+     * @param path The file to read.
+     * @param tasks The task list to append to.
+     * @return How many records were imported and skipped.
+     * @throws NovaException If the format is unsupported or the file cannot be read.
+     */
+    public Summary importTasks(String path, TaskList tasks) throws NovaException {
+        boolean isCsv = isCsv(path);
+        int imported = 0;
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8);
+                BufferedWriter appender = storage.openAppender()) {
+            ArrayList<Task> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            String line;
+            boolean isHeader = isCsv;
+            while ((line = reader.readLine()) != null) {
+                if (isCsv) {
+                    line = readCsvRecord(line, reader);
+                }
+                if (line == null || line.length() > MAX_RECORD_LENGTH) {
+                    isHeader = false;
+                    skipped++;
+                    continue;
+                }
+                if (isHeader) {
+                    isHeader = false;
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(toTask(isCsv ? parseCsv(line) : parseJson(line)));
+                } catch (NovaException e) {
+                    skipped++;
+                    continue;
+                }
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    imported += flushBatch(batch, tasks, appender);
+                }
+            }
+            imported += flushBatch(batch, tasks, appender);
+        } catch (IOException e) {
+            throw new NovaException("Error importing tasks: " + e.getMessage());
+        }
+        return new Summary(imported, skipped);
+    }
+
+    private int flushBatch(ArrayList<Task> batch, TaskList tasks, BufferedWriter appender) throws IOException {
+        int count = batch.size();
+        tasks.addTasks(batch);
+        for (Task task : batch) {
+            storage.writeTask(appender, task);
+        }
+        batch.clear();
+        return count;
+    }
+
+    private boolean isCsv(String path) throws NovaException {
+        String lowerPath = path.toLowerCase();
+        if (lowerPath.endsWith(".csv")) {
+            return true;
+        } else if (lowerPath.endsWith(".jsonl")) {
+            return false;
+        }
+        throw new NovaException("Unsupported file type. Use a .csv or .jsonl file.");
+    }
+
+    private Map<String, String> toFields(Task task) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("type", task instanceof Deadline ? "D" : task instanceof Event ? "E"
+                : task instanceof Recurring ? "R" : "T");
+        fields.put("done", task.isDone ? "1" : "0");
+        fields.put("description", task.description);
+        if (task instanceof Deadline) {
+            fields.put("by", ((Deadline) task).by.substring(4).trim());
+        } else if (task instanceof Event) {
+            fields.put("from", ((Event) task).from.substring(6).trim());
+            fields.put("to", ((Event) task).to.substring(4).trim());
+        } else if (task instanceof Recurring) {
+            Recurring recurring = (Recurring) task;
+            fields.put("from", recurring.start.toString());
+            fields.put("every", String.valueOf(recurring.intervalDays));
+            StringBuilder completed = new StringBuilder();
+            for (LocalDate date : recurring.getDoneDates()) {
+                completed.append(completed.length() == 0 ? "" : ";").append(date);
+            }
+            fields.put("completed", completed.toString());
+        }
+        return fields;
+    }
+
+    /**
+     * Validates the fields of one record and builds the task they describe.
+     */
+    private Task toTask(Map<String, String> fields) throws NovaException {
+        for (String value : fields.values()) {
+            if (value.contains("|") || value.contains("\n") || value.contains("\r")) {
+                throw new NovaException("Field contains a reserved character.");
+            }
+        }
+        String type = fields.getOrDefault("type", "").trim().toUpperCase();
+        String description = fields.getOrDefault("description", "").trim();
+        if (description.isEmpty()) {
+            throw new NovaException("Missing description.");
+        }
+        description = storage.intern(description);
+        Task task;
+        switch (type) {
+        case "T":
+            task = new Todo(description);
+            break;
+        case "D":
+            task = new Deadline(description, storage.intern("by: " + require(fields, "by")));
+            break;
+        case "E":
+            task = new Event(description, storage.intern("from: " + require(fields, "from")),
+                    storage.intern("to: " + require(fields, "to")));
+            break;
+        case "R":
+            task = toRecurring(description, fields);
+            break;
+        default:
+            throw new NovaException("Unknown task type.");
+        }
+        String done = fields.getOrDefault("done", "").trim().toLowerCase();
+        if (!done.isEmpty() && !done.equals("1") && !done.equals("0") && !done.equals("true") && !done.equals("false")) {
+            throw new NovaException("Invalid done flag.");
+        }
+        task.markAsDone(done.equals("1") || done.equals("true"));
+        return task;
+    }
+
+    private Recurring toRecurring(String description, Map<String, String> fields) throws NovaException {
+        try {
+            Recurring task = new Recurring(description, LocalDate.parse(require(fields, "from")),
+                    Integer.parseInt(require(fields, "every")));
+            if (task.intervalDays < 1) {
+                throw new NovaException("Invalid interval.");
+            }
+            String completed = fields.getOrDefault("completed", "").trim();
+            if (!completed.isEmpty()) {
+                for (String date : completed.split(";")) {
+                    task.markOccurrence(LocalDate.parse(date.trim()), true);
+                }
+            }
+            return task;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new NovaException("Invalid recurrence.");
+        }
+    }
+
+    private String require(Map<String, String> fields, String name) throws NovaException {
+        String value = fields.getOrDefault(name, "").trim();
+        if (value.isEmpty()) {
+            throw new NovaException("Missing " + name + ".");
+        }
+        return value;
+    }
+
+    private String toCsv(Map<String, String> fields) {
+        StringBuilder row = new StringBuilder();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            String value = fields.getOrDefault(COLUMNS[i], "");
+            if (value.contains(",") || value.contains("\"")) {
+                row.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                row.append(value);
+            }
+        }
+        return row.toString();
+    }
+
+    private Map<String, String> parseCsv(String line) throws NovaException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        StringBuilder value = new StringBuilder();
+        int column = 0;
+        boolean isQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (isQuoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    isQuoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                isQuoted = true;
+            } else if (c == ',') {
+                putColumn(fields, column++, value);
+            } else {
+                value.append(c);
+            }
+        }
+        putColumn(fields, column, value);
+        return fields;
+    }
+
+    private void putColumn(Map<String, String> fields, int column, StringBuilder value) throws NovaException {
+        if (column >= COLUMNS.length) {
+            throw new NovaException("Too many columns.");
+        }
+        fields.put(COLUMNS[column], value.toString());
+        value.setLength(0);
+    }
+
+    /**
+     * Joins the lines of a CSV record whose quoted fields contain line breaks.
+     *
+     * A record is given up after {@value #MAX_RECORD_LINES} lines or
+     * {@value #MAX_RECORD_LENGTH} characters, so one stray quote cannot pull the
+     * rest of the file into memory.
+     *
+     * @param line The first line of the record.
+     * @param reader The reader positioned after that line.
+     * @return The whole record, or null if it is unbalanced or too long.
+     */
+    private String readCsvRecord(String line, BufferedReader reader) throws IOException {
+        int quotes = countQuotes(line);
+        if (quotes % 2 == 0) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        int lines = 1;
+        while (quotes % 2 != 0) {
+            if (lines == MAX_RECORD_LINES || record.length() > MAX_RECORD_LENGTH) {
+                return null;
+            }
+            String next = reader.readLine();
+            if (next == null) {
+                return null;
+            }
+            record.append('\n').append(next);
+            quotes += countQuotes(next);
+            lines++;
+        }
+        return record.toString();
+    }
+
+    private int countQuotes(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private String toJson(Map<String, String> fields) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            appendJsonString(json, field.getKey());
+            json.append(':');
+            if (field.getKey().equals("done")) {
+                json.append(field.getValue().equals("1"));
+            } else {
+                appendJsonString(json, field.getValue());
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private void appendJsonString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Parses one flat JSON object whose values are strings, booleans, numbers or null.
+     */
+    private Map<String, String> parseJson(String line) throws NovaException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        int[] pos = {skipSpace(line, 0)};
+        expect(line, pos, '{');
+        if (peek(line, pos) == '}') {
+            return fields;
+        }
+        while (true) {
+            String key = readJsonString(line, pos);
+            expect(line, pos, ':');
+            String value;
+            if (peek(line, pos) == '"') {
+                value = readJsonString(line, pos);
+            } else {
+                int start = pos[0];
+                while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0) {
+                    pos[0]++;
+                }
+                value = line.substring(start, pos[0]);
+                if (value.equals("null")) {
+                    value = "";
+                }
+            }
+            fields.put(key, value);
+            if (peek(line, pos) == ',') {
+                pos[0]++;
+                continue;
+            }
+            expect(line, pos, '}');
+            return fields;
+        }
+    }
+
+    private String readJsonString(String line, int[] pos) throws NovaException {
+        expect(line, pos, '"');
+        StringBuilder value = new StringBuilder();
+        while (pos[0] < line.length()) {
+            char c = line.charAt(pos[0]++);
+            if (c == '"') {
+                return value.toString();
+            } else if (c != '\\') {
+                value.append(c);
+            } else if (pos[0] < line.length()) {
+                char escaped = line.charAt(pos[0]++);
+                switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (pos[0] + 4 > line.length()) {
+                        throw new NovaException("Invalid JSON escape.");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(line.substring(pos[0], pos[0] + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw new NovaException("Invalid JSON escape.");
+                    }
+                    pos[0] += 4;
+                    break;
+                default:
+                    value.append(escaped);
+                    break;
+                }
+            }
+        }
+        throw new NovaException("Unterminated JSON string.");
+    }
+
+    private char peek(String line, int[] pos) throws NovaException {
+        pos[0] = skipSpace(line, pos[0]);
+        if (pos[0] >= line.length()) {
+            throw new NovaException("Unexpected end of JSON record.");
+        }
+        return line.charAt(pos[0]);
+    }
+
+    private void expect(String line, int[] pos, char expected) throws NovaException {
+        if (peek(line, pos) != expected) {
+            throw new NovaException("Expected '" + expected + "' in JSON record.");
+        }
+        pos[0]++;
+    }
+
+    private int skipSpace(String line, int pos) {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+}
@@ -1,8 +1,14 @@
 package nova;
 
+import nova.task.Recurring;
 import nova.task.Task;
 
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -14,11 +20,30 @@ import java.util.Scanner;
 public class Ui {
     private static final String SEPARATOR = "____________________________________________________________";
     private final Scanner scanner = new Scanner(System.in);
+    private final Charset charset = consoleCharset();
+    private final PrintStream out = new PrintStream(System.out, true, charset);
+    private final byte[] taskIndent = "   ".getBytes(charset);
+    private final byte[] lineBreak = System.lineSeparator().getBytes(charset);
+    private final byte[] outputBuffer = new byte[8192];
+    private int outputLength;
+
+    /**
+     * Returns the charset standard output is encoded in, so that task rows written
+     * as bytes match the lines printed as text.
+     */
+    private static Charset consoleCharset() {
+        String name = System.getProperty("stdout.encoding", System.getProperty("sun.stdout.encoding"));
+        try {
+            return name == null ? Charset.defaultCharset() : Charset.forName(name);
+        } catch (IllegalArgumentException e) {
+            return Charset.defaultCharset();
+        }
+    }
 
     public void showWelcome() {
         showLine();
-        System.out.println("Hello! I'm Nova");
-        System.out.println("What can I do for you?");
+        out.println("Hello! I'm Nova");
+        out.println("What can I do for you?");
         showLine();
     }
 
@@ -26,7 +51,7 @@ public class Ui {
      * Displays a separator line.
      */
     public void showLine() {
-        System.out.println(SEPARATOR);
+        out.println(SEPARATOR);
     }
 
     /**
@@ -44,7 +69,7 @@ public class Ui {
      * @param message The error message to display.
      */
     public void showError(String message) {
-        System.out.println("OOPS!!! " + message);
+        out.println("OOPS!!! " + message);
     }
 
     /**
@@ -60,7 +85,7 @@ public class Ui {
      * Displays the exit message.
      */
     public void showExit() {
-        System.out.println("Bye. Hope to see you again soon!");
+        out.println("Bye. Hope to see you again soon!");
     }
 
     /**
@@ -70,9 +95,9 @@ public class Ui {
      * @param taskCount The new total number of tasks.
      */
     public void showTaskAdded(Task task, int taskCount) {
-        System.out.println("Got it. I've added this task:");
-        System.out.println("   " + task);
-        System.out.println("Now you have " + taskCount + " tasks in the list.");
+        out.println("Got it. I've added this task:");
+        writeTaskLine(task);
+        out.println("Now you have " + taskCount + " tasks in the list.");
     }
 
     /**
@@ -82,9 +107,9 @@ public class Ui {
      * @param taskCount The new total number of tasks.
      */
     public void showTaskRemoved(Task task, int taskCount) {
-        System.out.println("Noted. I've removed this task:");
-        System.out.println("   " + task);
-        System.out.println("Now you have " + taskCount + " tasks in the list.");
+        out.println("Noted. I've removed this task:");
+        writeTaskLine(task);
+        out.println("Now you have " + taskCount + " tasks in the list.");
     }
 
     /**
@@ -92,11 +117,51 @@ public class Ui {
      *
      * @param tasks The list of tasks to display.
      */
-    public void showTaskList(ArrayList<Task> tasks) {
-        System.out.println("Here are the tasks in your list:");
+    public void showTaskList(List<Task> tasks) {
+        out.println("Here are the tasks in your list:");
+        for (int i = 0; i < tasks.size(); i++) {
+            writeNumberedTask(i + 1, true, tasks.get(i));
+        }
+        flushOutput();
+    }
+
+    /**
+     * Displays the task list as it was at a past time.
+     *
+     * @param tasks The tasks at that time.
+     * @param time The time the list is shown for.
+     */
+    public void showTaskListAsOf(List<Task> tasks, String time) {
+        out.println("Here are the tasks in your list as of " + time + ":");
+        for (int i = 0; i < tasks.size(); i++) {
+            writeNumberedTask(i + 1, true, tasks.get(i));
+        }
+        flushOutput();
+    }
+
+    /**
+     * Displays one page of the task list.
+     *
+     * @param tasks The tasks on the page.
+     * @param firstNumber The number of the first task on the page.
+     * @param page The page number.
+     * @param pageCount The total number of pages.
+     */
+    public void showTaskPage(List<Task> tasks, int firstNumber, int page, int pageCount) {
+        out.println("Here are the tasks in your list (page " + page + " of " + pageCount + "):");
         for (int i = 0; i < tasks.size(); i++) {
-            System.out.printf(" %d. %s%n", i + 1, tasks.get(i));
+            writeNumberedTask(firstNumber + i, true, tasks.get(i));
         }
+        flushOutput();
+    }
+
+    /**
+     * Displays a message indicating the order the task list is now viewed in.
+     *
+     * @param order The new sort order, or null for the order tasks were added.
+     */
+    public void showSortOrder(SortOrder order) {
+        out.println("Got it. Your list is now sorted by " + (order == null ? "added" : order) + ".");
     }
 
     /**
@@ -106,8 +171,63 @@ public class Ui {
      * @param isDone Whether the task was marked as done or not done.
      */
     public void showTaskMarked(Task task, boolean isDone) {
-        System.out.println(" " + (isDone ? "Nice! I've marked this task as done:" : "OK, I've marked this task as not done yet:"));
-        System.out.println("   " + task);
+        out.println(" " + (isDone ? "Nice! I've marked this task as done:" : "OK, I've marked this task as not done yet:"));
+        writeTaskLine(task);
+    }
+
+    /**
+     * Displays a message indicating that one occurrence of a recurring task has been marked.
+     *
+     * @param task The recurring task.
+     * @param date The date of the occurrence.
+     * @param isDone Whether the occurrence was marked as done or not done.
+     */
+    public void showOccurrenceMarked(Task task, LocalDate date, boolean isDone) {
+        out.println(" " + (isDone ? "Nice! I've marked this occurrence as done:" : "OK, I've marked this occurrence as not done yet:"));
+        out.println("   " + task + " on " + date);
+    }
+
+    /**
+     * Displays the occurrences of recurring tasks in a date range.
+     *
+     * @param occurrences The occurrences, in date order.
+     * @param numbers The list number of each recurring task.
+     * @param from The first date of the range.
+     * @param to The last date of the range.
+     */
+    public void showAgenda(List<Recurring.Occurrence> occurrences, Map<Task, Integer> numbers,
+            LocalDate from, LocalDate to) {
+        out.println("Here are your recurring tasks from " + from + " to " + to + ":");
+        for (Recurring.Occurrence occurrence : occurrences) {
+            out.println(" " + numbers.get(occurrence.task) + "." + occurrence);
+        }
+    }
+
+    /**
+     * Displays a message indicating that a dependency has been added.
+     *
+     * @param dependent The task that is now blocked.
+     * @param prerequisite The task it depends on.
+     */
+    public void showDependencyAdded(Task dependent, Task prerequisite) {
+        out.println("Got it. This task:");
+        writeTaskLine(dependent);
+        out.println("now depends on:");
+        writeTaskLine(prerequisite);
+    }
+
+    /**
+     * Displays the tasks whose prerequisites are all done.
+     *
+     * @param readyTasks The ready tasks.
+     * @param numbers The list number of each ready task.
+     */
+    public void showReadyTasks(List<Task> readyTasks, List<Integer> numbers) {
+        out.println("Here are the tasks that are ready to work on:");
+        for (int i = 0; i < readyTasks.size(); i++) {
+            writeNumberedTask(numbers.get(i), true, readyTasks.get(i));
+        }
+        flushOutput();
     }
 
     /**
@@ -116,9 +236,98 @@ public class Ui {
      * @param foundTasks The list of tasks that match the search keyword.
      */
     public void showFoundTasks(ArrayList<Task> foundTasks) {
-        System.out.println("Here are the matching tasks in your list:");
+        out.println("Here are the matching tasks in your list:");
         for (int i = 0; i < foundTasks.size(); i++) {
-            System.out.printf(" %d.%s%n", i + 1, foundTasks.get(i));
+            writeNumberedTask(i + 1, false, foundTasks.get(i));
         }
+        flushOutput();
+    }
+
+    /**
+     * Displays a message indicating that tasks have been exported.
+     *
+     * @param count The number of tasks exported.
+     * @param path The file the tasks were written to.
+     */
+    public void showTasksExported(int count, String path) {
+        out.println("Exported " + count + " tasks to " + path + ".");
+    }
+
+    /**
+     * Displays a message indicating that tasks have been imported.
+     *
+     * @param imported The number of tasks imported.
+     * @param skipped The number of invalid records skipped.
+     * @param taskCount The new total number of tasks.
+     */
+    public void showTasksImported(int imported, int skipped, int taskCount) {
+        out.println("Imported " + imported + " tasks" + (skipped > 0 ? " (skipped " + skipped + " invalid records)." : "."));
+        out.println("Now you have " + taskCount + " tasks in the list.");
+    }
+
+    /**
+     * Writes an indented task line using the task's cached bytes.
+     *
+     * @param task The task to write.
+     */
+    private void writeTaskLine(Task task) {
+        writeOutput(taskIndent);
+        writeOutput(task.toBytes(charset));
+        writeOutput(lineBreak);
+        flushOutput();
+    }
+
+    /**
+     * Buffers a {@code " N. task"} row without formatting or building intermediate strings.
+     *
+     * @param number The number shown before the task.
+     * @param hasSpace Whether a space separates the number from the task.
+     * @param task The task to write.
+     */
+    private void writeNumberedTask(int number, boolean hasSpace, Task task) {
+        byte[] bytes = task.toBytes(charset);
+        if (outputLength + bytes.length + 16 + lineBreak.length > outputBuffer.length) {
+            flushOutput();
+        }
+        outputBuffer[outputLength++] = ' ';
+        int digitsEnd = outputLength + digitCount(number);
+        for (int pos = digitsEnd - 1; pos >= outputLength; pos--) {
+            outputBuffer[pos] = (byte) ('0' + number % 10);
+            number /= 10;
+        }
+        outputLength = digitsEnd;
+        outputBuffer[outputLength++] = '.';
+        if (hasSpace) {
+            outputBuffer[outputLength++] = ' ';
+        }
+        writeOutput(bytes);
+        writeOutput(lineBreak);
+    }
+
+    private static int digitCount(int number) {
+        int count = 1;
+        while (number >= 10) {
+            number /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    private void writeOutput(byte[] bytes) {
+        if (outputLength + bytes.length > outputBuffer.length) {
+            flushOutput();
+            if (bytes.length > outputBuffer.length) {
+                out.write(bytes, 0, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, outputBuffer, outputLength, bytes.length);
+        outputLength += bytes.length;
+    }
+
+    private void flushOutput() {
+        out.write(outputBuffer, 0, outputLength);
+        out.flush();
+        outputLength = 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package nova.command;
+
+import nova.TaskList;
+import nova.Ui;
+import nova.Storage;
+import nova.NovaException;
+import nova.task.Recurring;
+import nova.task.Task;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A command to list the occurrences of recurring tasks within a date range.
+ *
+ * Occurrences are generated only for the requested range.
+ */
+public class AgendaCommand extends Command {
+    private final String[] inputParts;
+
+    /**
+     * Constructs a new AgendaCommand.
+     *
+     * @param inputParts The user input split into command and date range.
+     */
+    public AgendaCommand(String[] inputParts) {
+        this.inputParts = inputParts;
+    }
+
+    /**
+     * Executes the agenda command.
+     *
+     * @param tasks   The task list to operate on.
+     * @param ui      The user interface to use for display.
+     * @param storage The storage (not used in this command).
+     * @throws NovaException If the date range is invalid.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
+        String[] range = inputParts.length < 2 ? new String[0] : inputParts[1].trim().split("\\s+");
+        if (range.length != 2) {
+            throw new NovaException("Invalid format! Use 'agenda [from] [to]', e.g. 'agenda 2024-12-01 2024-12-07'.");
+        }
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(range[0]);
+            to = LocalDate.parse(range[1]);
+        } catch (DateTimeParseException e) {
+            throw new NovaException("Invalid date. Use yyyy-MM-dd, e.g. 2024-12-01.");
+        }
+        if (to.isBefore(from)) {
+            throw new NovaException("The end of the range cannot be before its start.");
+        }
+        List<Task> view = tasks.getViewTasks(0, tasks.size());
+        List<Recurring.Occurrence> occurrences = new ArrayList<>();
+        Map<Task, Integer> numbers = new IdentityHashMap<>();
+        for (int i = 0; i < view.size(); i++) {
+            if (view.get(i) instanceof Recurring) {
+                occurrences.addAll(((Recurring) view.get(i)).occurrencesBetween(from, to));
+                numbers.put(view.get(i), i + 1);
+            }
+        }
+        occurrences.sort(Comparator.comparing((Recurring.Occurrence o) -> o.date)
+                .thenComparing(o -> numbers.get(o.task)));
+        ui.showAgenda(occurrences, numbers, from, to);
+    }
+}
@@ -14,4 +14,15 @@ public abstract class Command {
     public boolean isExit() {
         return false;
     }
+
+    /**
+     * Returns whether this command changes the task list or the files it is saved in.
+     *
+     * If the data file is shared, such commands hold its lock while they run.
+     *
+     * @return false, unless overridden.
+     */
+    public boolean isMutating() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -27,7 +27,7 @@ public class DeadlineCommand extends Command {
      *
      * @param tasks   The task list to operate on.
      * @param ui      The user interface to use for display.
-     * @param storage The storage to use for saving tasks.
+     * @param storage The storage to append the new task to.
      * @throws NovaException If there is an error executing the command.
      */
     @Override
@@ -36,10 +36,10 @@ public class DeadlineCommand extends Command {
             throw new NovaException("The description of a deadline cannot be empty. Example: 'deadline Buy groceries /by 2024-12-24'.");
         }
         String[] details = parseTaskDetails(inputParts[1], "/by");
-        Task task = new Deadline(details[0], "by: " + details[1]);
+        Task task = new Deadline(storage.intern(details[0]), storage.intern("by: " + details[1]));
         tasks.addTask(task);
         ui.showTaskAdded(task, tasks.size());
-        storage.save(tasks.getTasks());
+        storage.append(task);
     }
 
     /**
@@ -57,4 +57,14 @@ public class DeadlineCommand extends Command {
         }
         return details;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns true, as this command changes the task list.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package nova.command;
 
+import nova.TaskGraph;
 import nova.TaskList;
 import nova.Ui;
 import nova.Storage;
@@ -31,11 +32,13 @@ public class DeleteCommand extends Command {
      */
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
-        int taskIndex = getTaskIndex(input, tasks);
+        int taskIndex = tasks.toIndex(getTaskIndex(input, tasks));
+        TaskGraph dependencies = storage.getDependencies();
         Task removedTask = tasks.getTask(taskIndex);
         tasks.removeTask(taskIndex);
         ui.showTaskRemoved(removedTask, tasks.size());
         storage.save(tasks.getTasks());
+        dependencies.save(tasks.getTasks());
     }
 
     /**
@@ -57,4 +60,14 @@ public class DeleteCommand extends Command {
             throw new NovaException("Invalid input format. Use: delete [number]");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns true, as this command changes the task list.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
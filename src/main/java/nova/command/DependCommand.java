@@ -0,0 +1,78 @@
+package nova.command;
+
+import nova.TaskGraph;
+import nova.TaskList;
+import nova.Ui;
+import nova.Storage;
+import nova.NovaException;
+import nova.task.Task;
+
+/**
+ * A command to make one task depend on another.
+ */
+public class DependCommand extends Command {
+    private final String[] inputParts;
+
+    /**
+     * Constructs a new DependCommand.
+     *
+     * @param inputParts The user input split into command and {@code [number] on [number]}.
+     */
+    public DependCommand(String[] inputParts) {
+        this.inputParts = inputParts;
+    }
+
+    /**
+     * Executes the depend command.
+     *
+     * @param tasks   The task list to operate on.
+     * @param ui      The user interface to use for display.
+     * @param storage The storage holding the dependencies.
+     * @throws NovaException If the input is invalid or the dependency would create a cycle.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
+        String[] numbers = inputParts.length < 2 ? new String[0] : inputParts[1].trim().split(" on ");
+        if (numbers.length != 2) {
+            throw new NovaException("Invalid input format. Use: depend [number] on [number]");
+        }
+        Task dependent = tasks.getTask(tasks.toIndex(getPosition(numbers[0], tasks)));
+        Task prerequisite = tasks.getTask(tasks.toIndex(getPosition(numbers[1], tasks)));
+        TaskGraph dependencies = storage.getDependencies();
+        if (!dependencies.addDependency(dependent, prerequisite)) {
+            throw new NovaException("This dependency already exists.");
+        }
+        ui.showDependencyAdded(dependent, prerequisite);
+        dependencies.save(tasks.getTasks());
+    }
+
+    /**
+     * Gets the position of a task in the list from its number.
+     *
+     * @param number The task number entered by the user.
+     * @param tasks The task list.
+     * @return The zero-based position of the task.
+     * @throws NovaException If the number is invalid or out of range.
+     */
+    private int getPosition(String number, TaskList tasks) throws NovaException {
+        try {
+            int position = Integer.parseInt(number.trim()) - 1;
+            if (position >= 0 && position < tasks.size()) {
+                return position;
+            }
+            throw new NovaException("Invalid task number. Enter a number between 1 and " + tasks.size() + ".");
+        } catch (NumberFormatException e) {
+            throw new NovaException("Invalid input format. Use: depend [number] on [number]");
+        }
+    }
+
+    /**
+     * Returns true, as this command changes the dependencies.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
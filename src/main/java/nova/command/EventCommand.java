@@ -27,7 +27,7 @@ public class EventCommand extends Command {
      *
      * @param tasks   The task list to operate on.
      * @param ui      The user interface to use for display.
-     * @param storage The storage to use for saving tasks.
+     * @param storage The storage to append the new task to.
      * @throws NovaException If there is an error executing the command.
      */
     @Override
@@ -37,10 +37,11 @@ public class EventCommand extends Command {
         }
         String[] details = parseTaskDetails(inputParts[1], "/from");
         String[] timeParts = parseTaskDetails(details[1], "/to");
-        Task task = new Event(details[0], "from: " + timeParts[0], "to: " + timeParts[1]);
+        Task task = new Event(storage.intern(details[0]),
+                storage.intern("from: " + timeParts[0]), storage.intern("to: " + timeParts[1]));
         tasks.addTask(task);
         ui.showTaskAdded(task, tasks.size());
-        storage.save(tasks.getTasks());
+        storage.append(task);
     }
 
     /**
@@ -58,4 +59,14 @@ public class EventCommand extends Command {
         }
         return details;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns true, as this command changes the task list.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package nova.command;
+
+import nova.TaskList;
+import nova.TaskTransfer;
+import nova.Ui;
+import nova.Storage;
+import nova.NovaException;
+
+/**
+ * A command to export all tasks to a CSV or JSON Lines file.
+ */
+public class ExportCommand extends Command {
+    private final String[] inputParts;
+
+    /**
+     * Constructs a new ExportCommand.
+     *
+     * @param inputParts The user input split into command and file path.
+     */
+    public ExportCommand(String[] inputParts) {
+        this.inputParts = inputParts;
+    }
+
+    /**
+     * Executes the export command.
+     *
+     * @param tasks   The task list to export.
+     * @param ui      The user interface to use for display.
+     * @param storage The storage (not used in this command).
+     * @throws NovaException If there is an error executing the command.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
+        if (inputParts.length < 2 || inputParts[1].trim().isEmpty()) {
+            throw new NovaException("The file to export to cannot be empty. Example: 'export tasks.csv'.");
+        }
+        String path = inputParts[1].trim();
+        int count = new TaskTransfer(storage).exportTasks(tasks.getTasks(), path);
+        ui.showTasksExported(count, path);
+    }
+}
@@ -0,0 +1,50 @@
+package nova.command;
+
+import nova.TaskList;
+import nova.TaskTransfer;
+import nova.Ui;
+import nova.Storage;
+import nova.NovaException;
+
+/**
+ * A command to import tasks from a CSV or JSON Lines file.
+ */
+public class ImportCommand extends Command {
+    private final String[] inputParts;
+
+    /**
+     * Constructs a new ImportCommand.
+     *
+     * @param inputParts The user input split into command and file path.
+     */
+    public ImportCommand(String[] inputParts) {
+        this.inputParts = inputParts;
+    }
+
+    /**
+     * Executes the import command.
+     *
+     * @param tasks   The task list to append the imported tasks to.
+     * @param ui      The user interface to use for display.
+     * @param storage The storage to append the imported tasks to.
+     * @throws NovaException If there is an error executing the command.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
+        if (inputParts.length < 2 || inputParts[1].trim().isEmpty()) {
+            throw new NovaException("The file to import from cannot be empty. Example: 'import tasks.jsonl'.");
+        }
+        TaskTransfer.Summary summary = new TaskTransfer(storage).importTasks(inputParts[1].trim(), tasks);
+        ui.showTasksImported(summary.imported, summary.skipped, tasks.size());
+    }
+
+    /**
+     * Returns true, as this command changes the task list.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
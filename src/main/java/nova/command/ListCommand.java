@@ -4,13 +4,101 @@ import nova.TaskList;
 import nova.Ui;
 import nova.Storage;
 import nova.NovaException;
+import nova.task.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 /**
- * A command to list all tasks.
+ * A command to list all tasks, or one page of them, in the active sort order.
+ *
+ * While the list is still loading in the added order, a page is read straight from
+ * storage when it can be, so it shows without waiting for the rest of the file.
+ *
+ * With {@code --as-of <time>}, it lists the tasks as they were at that time instead.
  */
 public class ListCommand extends Command {
+    private static final int PAGE_SIZE = 20;
+    private static final String AS_OF_FLAG = "--as-of";
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final String[] inputParts;
+
+    /**
+     * Constructs a new ListCommand.
+     *
+     * @param inputParts The user input split into command and optional page number or time.
+     */
+    public ListCommand(String[] inputParts) {
+        this.inputParts = inputParts;
+    }
+
+    /**
+     * Executes the list command.
+     *
+     * @param tasks   The task list to operate on.
+     * @param ui      The user interface to use for display.
+     * @param storage The storage holding the task history.
+     * @throws NovaException If the page number or time is invalid.
+     */
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
-        ui.showTaskList(tasks.getTasks());
+        int size = tasks.size();
+        if (inputParts.length < 2 || inputParts[1].trim().isEmpty()) {
+            ui.showTaskList(tasks.getViewTasks(0, size));
+            return;
+        }
+        if (inputParts[1].trim().startsWith(AS_OF_FLAG)) {
+            String time = inputParts[1].trim().substring(AS_OF_FLAG.length()).trim();
+            ui.showTaskListAsOf(storage.getHistory().tasksAsOf(parseTime(time)), time);
+            return;
+        }
+        int pageCount = Math.max(1, (size + PAGE_SIZE - 1) / PAGE_SIZE);
+        int page;
+        try {
+            page = Integer.parseInt(inputParts[1].trim());
+        } catch (NumberFormatException e) {
+            throw new NovaException("Invalid input format. Use: list or list [page]");
+        }
+        if (page < 1 || page > pageCount) {
+            throw new NovaException("Invalid page number. Enter a number between 1 and " + pageCount + ".");
+        }
+        int from = (page - 1) * PAGE_SIZE;
+        int to = Math.min(size, from + PAGE_SIZE);
+        List<Task> pageTasks = null;
+        if (tasks.isLoading() && tasks.getSortOrder() == null) {
+            pageTasks = storage.readTasks(from, to);
+        }
+        if (pageTasks == null) {
+            pageTasks = tasks.getViewTasks(from, to);
+        }
+        ui.showTaskPage(pageTasks, from + 1, page, pageCount);
+    }
+
+    /**
+     * Parses a time given as {@code yyyy-MM-dd HH:mm}, {@code yyyy-MM-ddTHH:mm} or {@code yyyy-MM-dd}.
+     *
+     * @param time The time entered by the user.
+     * @return The time in milliseconds since the epoch.
+     * @throws NovaException If the time cannot be parsed.
+     */
+    private long parseTime(String time) throws NovaException {
+        try {
+            LocalDateTime dateTime;
+            if (time.contains("T")) {
+                dateTime = LocalDateTime.parse(time);
+            } else if (time.contains(" ")) {
+                dateTime = LocalDateTime.parse(time, DATE_TIME_FORMAT);
+            } else {
+                dateTime = LocalDate.parse(time).atStartOfDay();
+            }
+            return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new NovaException("Invalid time. Use: list --as-of yyyy-MM-dd HH:mm");
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,13 @@ import nova.Ui;
 import nova.Storage;
 import nova.NovaException;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
 /**
  * A command to mark a task as done or not done.
+ *
+ * With {@code /on <date>}, only that occurrence of a recurring task is marked.
  */
 public class MarkCommand extends Command {
     private final String input;
@@ -33,9 +38,17 @@ public class MarkCommand extends Command {
      */
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
-        int taskIndex = getTaskIndex(input, tasks);
+        int taskIndex = tasks.toIndex(getTaskIndex(input, tasks));
+        String[] occurrenceParts = input.split(" /on ", 2);
+        if (occurrenceParts.length == 2) {
+            LocalDate date = parseDate(occurrenceParts[1].trim());
+            tasks.markOccurrence(taskIndex, date, isDone);
+            ui.showOccurrenceMarked(tasks.getTask(taskIndex), date, isDone);
+            storage.save(tasks.getTasks());
+            return;
+        }
+        tasks.markTask(taskIndex, isDone);
         nova.task.Task task = tasks.getTask(taskIndex); // Specify ip.task.Task
-        task.markAsDone(isDone);
         ui.showTaskMarked(task, isDone);
         storage.save(tasks.getTasks());
     }
@@ -59,4 +72,29 @@ public class MarkCommand extends Command {
             throw new NovaException("Invalid input format. Use: mark [number] or unmark [number]");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Parses the date of the occurrence to mark.
+     *
+     * @param date The date in yyyy-MM-dd format.
+     * @return The parsed date.
+     * @throws NovaException If the date is invalid.
+     */
+    private LocalDate parseDate(String date) throws NovaException {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new NovaException("Invalid date. Use: mark [number] /on yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * Returns true, as this command changes the task list.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package nova.command;
+
+import nova.TaskGraph;
+import nova.TaskList;
+import nova.Ui;
+import nova.Storage;
+import nova.NovaException;
+import nova.task.Task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A command to list the tasks that are not done and whose prerequisites are all done.
+ *
+ * The ready tasks are read from the set the dependency graph maintains, then shown
+ * in the order of the active view.
+ */
+public class ReadyCommand extends Command {
+    /**
+     * Executes the ready command.
+     *
+     * @param tasks   The task list whose ready tasks are shown.
+     * @param ui      The user interface to use for display.
+     * @param storage The storage holding the dependencies.
+     * @throws NovaException If the dependencies cannot be loaded.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
+        TaskGraph dependencies = storage.getDependencies();
+        List<Task> readyTasks = dependencies.getReadyTasks();
+        Map<Task, Integer> positions = tasks.positionsOf(readyTasks);
+        readyTasks.removeIf(task -> !positions.containsKey(task));
+        readyTasks.sort(Comparator.comparing(positions::get));
+        List<Integer> numbers = new ArrayList<>(readyTasks.size());
+        for (Task task : readyTasks) {
+            numbers.add(positions.get(task) + 1);
+        }
+        ui.showReadyTasks(readyTasks, numbers);
+    }
+}
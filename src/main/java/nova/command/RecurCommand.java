@@ -0,0 +1,109 @@
+package nova.command;
+
+import nova.TaskList;
+import nova.Ui;
+import nova.Storage;
+import nova.NovaException;
+import nova.task.Recurring;
+import nova.task.Task;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A command to add a new recurring task.
+ */
+public class RecurCommand extends Command {
+    private final String[] inputParts;
+
+    /**
+     * Constructs a new RecurCommand.
+     *
+     * @param inputParts The user input split into command and task details.
+     */
+    public RecurCommand(String[] inputParts) {
+        this.inputParts = inputParts;
+    }
+
+    /**
+     * Executes the recur command.
+     *
+     * @param tasks   The task list to operate on.
+     * @param ui      The user interface to use for display.
+     * @param storage The storage to append the new task to.
+     * @throws NovaException If there is an error executing the command.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
+        if (inputParts.length < 2 || inputParts[1].trim().isEmpty()) {
+            throw new NovaException("The description of a recurring task cannot be empty. Example: 'recur Standup /every day /from 2024-12-02'.");
+        }
+        String[] details = parseTaskDetails(inputParts[1], "/every");
+        String[] ruleParts = parseTaskDetails(details[1], "/from");
+        Task task;
+        try {
+            task = new Recurring(storage.intern(details[0]), LocalDate.parse(ruleParts[1].trim()),
+                    parseInterval(ruleParts[0].trim()));
+        } catch (DateTimeParseException e) {
+            throw new NovaException("Invalid start date. Use yyyy-MM-dd, e.g. 2024-12-02.");
+        }
+        tasks.addTask(task);
+        ui.showTaskAdded(task, tasks.size());
+        storage.append(task);
+    }
+
+    /**
+     * Parses an interval such as {@code day}, {@code week}, {@code 3 days} or {@code 2 weeks}.
+     *
+     * @param interval The interval entered by the user.
+     * @return The interval in days.
+     * @throws NovaException If the interval is invalid.
+     */
+    private int parseInterval(String interval) throws NovaException {
+        String[] parts = interval.split(" ");
+        try {
+            int count = parts.length == 2 ? Integer.parseInt(parts[0]) : 1;
+            String unit = parts[parts.length - 1];
+            int days;
+            if (unit.startsWith("day")) {
+                days = count;
+            } else if (unit.startsWith("week")) {
+                days = count * 7;
+            } else {
+                throw new NovaException("Invalid interval! Use 'day', 'week', 'N days' or 'N weeks'.");
+            }
+            if (days < 1 || parts.length > 2) {
+                throw new NovaException("Invalid interval! Use 'day', 'week', 'N days' or 'N weeks'.");
+            }
+            return days;
+        } catch (NumberFormatException e) {
+            throw new NovaException("Invalid interval! Use 'day', 'week', 'N days' or 'N weeks'.");
+        }
+    }
+
+    /**
+     * Parses the task details from the user input.
+     *
+     * @param input     The user input containing the task details.
+     * @param delimiter The delimiter to split the input by.
+     * @return The parsed task details.
+     * @throws NovaException If the input is invalid.
+     */
+    private String[] parseTaskDetails(String input, String delimiter) throws NovaException {
+        String[] details = input.split(" " + delimiter + " ", 2);
+        if (details.length < 2) {
+            throw new NovaException("Invalid format! Use 'recur [task] /every [interval] /from [date]'.");
+        }
+        return details;
+    }
+
+    /**
+     * Returns true, as this command changes the task list.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package nova.command;
+
+import nova.SortOrder;
+import nova.TaskList;
+import nova.Ui;
+import nova.Storage;
+import nova.NovaException;
+
+/**
+ * A command to change the order in which tasks are listed and numbered.
+ */
+public class SortCommand extends Command {
+    private final String[] inputParts;
+
+    /**
+     * Constructs a new SortCommand.
+     *
+     * @param inputParts The user input split into command and {@code by:<order>}.
+     */
+    public SortCommand(String[] inputParts) {
+        this.inputParts = inputParts;
+    }
+
+    /**
+     * Executes the sort command.
+     *
+     * @param tasks   The task list to operate on.
+     * @param ui      The user interface to use for display.
+     * @param storage The storage (not used in this command).
+     * @throws NovaException If the sort order is invalid.
+     */
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws NovaException {
+        if (inputParts.length < 2 || !inputParts[1].trim().startsWith("by:")) {
+            throw new NovaException("Invalid format! Use 'sort by:<due|description|type|done|added>'.");
+        }
+        String name = inputParts[1].trim().substring(3).trim();
+        SortOrder order = name.equals("added") ? null : SortOrder.fromName(name);
+        tasks.setSortOrder(order);
+        ui.showSortOrder(order);
+    }
+}
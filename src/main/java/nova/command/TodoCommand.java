@@ -27,7 +27,7 @@ public class TodoCommand extends Command {
      *
      * @param tasks   The task list to operate on.
      * @param ui      The user interface to use for display.
-     * @param storage The storage to use for saving tasks.
+     * @param storage The storage to append the new task to.
      * @throws NovaException If there is an error executing the command.
      */
     @Override
@@ -35,9 +35,19 @@ public class TodoCommand extends Command {
         if (inputParts.length < 2 || inputParts[1].trim().isEmpty()) {
             throw new NovaException("The description of a todo cannot be empty. Example: 'todo Buy groceries'.");
         }
-        Task task = new Todo(inputParts[1]);
+        Task task = new Todo(storage.intern(inputParts[1]));
         tasks.addTask(task);
         ui.showTaskAdded(task, tasks.size());
-        storage.save(tasks.getTasks());
+        storage.append(task);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns true, as this command changes the task list.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isMutating() {
+        return true;
+    }
+}
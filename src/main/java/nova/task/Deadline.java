@@ -12,7 +12,7 @@ public class Deadline extends Task {
     }
 
     @Override
-    public String toString() {
-        return "[D]" + super.toString() + " (" + by + ")";
+    protected String render() {
+        return "[D]" + super.render() + " (" + by + ")";
     }
 }
\ No newline at end of file
@@ -14,7 +14,7 @@ public class Event extends Task {
     }
 
     @Override
-    public String toString() {
-        return "[E]" + super.toString() + " (" + from + " " + to + ")";
+    protected String render() {
+        return "[E]" + super.render() + " (" + from + " " + to + ")";
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package nova.task;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A class representing a task that repeats every fixed number of days.
+ *
+ * Only the rule is stored. Occurrences are generated on demand for the window
+ * being viewed, and the few occurrences that have been marked done are kept
+ * as exceptions to the rule.
+ */
+public class Recurring extends Task {
+    public final LocalDate start;
+    public final int intervalDays;
+    private final TreeSet<LocalDate> doneDates = new TreeSet<>();
+
+    /**
+     * Constructs a new Recurring task.
+     *
+     * @param description The description of the task.
+     * @param start The date of the first occurrence.
+     * @param intervalDays The number of days between occurrences.
+     */
+    public Recurring(String description, LocalDate start, int intervalDays) {
+        super(description);
+        this.start = start;
+        this.intervalDays = intervalDays;
+    }
+
+    /**
+     * A single occurrence of a recurring task.
+     */
+    public static class Occurrence {
+        public final Recurring task;
+        public final LocalDate date;
+        public final boolean isDone;
+
+        Occurrence(Recurring task, LocalDate date, boolean isDone) {
+            this.task = task;
+            this.date = date;
+            this.isDone = isDone;
+        }
+
+        @Override
+        public String toString() {
+            return "[R][" + (isDone ? "X" : " ") + "] " + task.description + " (on: " + date + ")";
+        }
+    }
+
+    /**
+     * Returns whether the task occurs on the given date.
+     *
+     * @param date The date to check.
+     * @return true if an occurrence falls on that date.
+     */
+    public boolean occursOn(LocalDate date) {
+        return !date.isBefore(start) && ChronoUnit.DAYS.between(start, date) % intervalDays == 0;
+    }
+
+    /**
+     * Returns the occurrences between two dates, inclusive, generating only those in the window.
+     *
+     * @param from The first date of the window.
+     * @param to The last date of the window.
+     * @return The occurrences in the window, in date order.
+     */
+    public List<Occurrence> occurrencesBetween(LocalDate from, LocalDate to) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        LocalDate date = start;
+        if (from.isAfter(start)) {
+            long daysIn = ChronoUnit.DAYS.between(start, from);
+            date = start.plusDays((daysIn + intervalDays - 1) / intervalDays * intervalDays);
+        }
+        for (; !date.isAfter(to); date = date.plusDays(intervalDays)) {
+            occurrences.add(new Occurrence(this, date, doneDates.contains(date)));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Marks one occurrence as done or not done.
+     *
+     * @param date The date of the occurrence.
+     * @param isDone Whether the occurrence is done.
+     * @return false if the task does not occur on that date.
+     */
+    public boolean markOccurrence(LocalDate date, boolean isDone) {
+        if (!occursOn(date)) {
+            return false;
+        }
+        if (isDone) {
+            doneDates.add(date);
+        } else {
+            doneDates.remove(date);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the dates of the occurrences that have been marked done.
+     *
+     * @return The done dates, in order.
+     */
+    public List<LocalDate> getDoneDates() {
+        return new ArrayList<>(doneDates);
+    }
+
+    @Override
+    protected String render() {
+        String every = intervalDays == 1 ? "day" : intervalDays == 7 ? "week" : intervalDays + " days";
+        return "[R]" + super.render() + " (every " + every + " from " + start + ")";
+    }
+}
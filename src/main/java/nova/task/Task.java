@@ -1,11 +1,19 @@
 package nova.task;
 
+import java.nio.charset.Charset;
+
 /**
  * An abstract class representing a task in the Nova application.
+ *
+ * The display form of a task is built once and cached, both as a string and as
+ * encoded bytes, until the task is marked or edited.
  */
 public abstract class Task {
     public String description;
     public boolean isDone;
+    private String rendered;
+    private byte[] renderedBytes;
+    private Charset renderedCharset;
 
     /**
      * Constructs a new Task.
@@ -24,6 +32,35 @@ public abstract class Task {
      */
     public void markAsDone(boolean isDone) {
         this.isDone = isDone;
+        invalidateRendering();
+    }
+
+    /**
+     * Changes the description of the task.
+     *
+     * @param description The new description.
+     */
+    public void setDescription(String description) {
+        this.description = description;
+        invalidateRendering();
+    }
+
+    /**
+     * Discards the cached display form so it is rebuilt on next use.
+     * Must be called whenever a field shown by {@link #render()} changes.
+     */
+    protected void invalidateRendering() {
+        rendered = null;
+        renderedBytes = null;
+    }
+
+    /**
+     * Builds the display form of the task.
+     *
+     * @return The string representation of the task.
+     */
+    protected String render() {
+        return "[" + (isDone ? "X" : " ") + "] " + description;
     }
 
     /**
@@ -32,7 +69,26 @@ public abstract class Task {
      * @return The string representation of the task.
      */
     @Override
-    public String toString() {
-        return "[" + (isDone ? "X" : " ") + "] " + description;
+    public final String toString() {
+        if (rendered == null) {
+            rendered = render();
+        }
+        return rendered;
+    }
+
+    /**
+     * Returns the string representation of the task encoded in the given charset.
+     *
+     * The returned array is cached and must not be modified.
+     *
+     * @param charset The charset of the stream the bytes are written to.
+     * @return The encoded string representation of the task.
+     */
+    public byte[] toBytes(Charset charset) {
+        if (renderedBytes == null || !charset.equals(renderedCharset)) {
+            renderedBytes = toString().getBytes(charset);
+            renderedCharset = charset;
+        }
+        return renderedBytes;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,167 @@
+package nova;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import nova.task.Deadline;
+import nova.task.Event;
+import nova.task.Task;
+import nova.task.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CompressedStorageTest {
+    private static final int TASK_COUNT = CompressedStorage.BLOCK_RECORDS * 3 + 17;
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+    private CompressedStorage storage;
+
+    private static ArrayList<Task> createTasks(int count, String prefix) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i % 3 == 0) {
+                tasks.add(new Todo(prefix + " " + i));
+            } else if (i % 3 == 1) {
+                tasks.add(new Deadline(prefix + " " + i, "by: 2024-12-03"));
+            } else {
+                tasks.add(new Event(prefix + " " + i, "from: 2024-12-01", "to: 2024-12-02"));
+            }
+            tasks.get(i).markAsDone(i % 5 == 0);
+        }
+        return tasks;
+    }
+
+    private List<String> format(List<Task> tasks) {
+        List<String> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(storage.formatTask(task));
+        }
+        return records;
+    }
+
+    private void overwrite(long position, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        path = directory.resolve("nova.nvz");
+        storage = new CompressedStorage(path.toString());
+    }
+
+    @Test
+    public void save_thenLoadAndReadTasks_returnsSameRecords() throws NovaException {
+        ArrayList<Task> tasks = createTasks(TASK_COUNT, "saved");
+        storage.save(tasks);
+        assertEquals(format(tasks), format(storage.load()));
+
+        int from = CompressedStorage.BLOCK_RECORDS - 5;
+        int to = CompressedStorage.BLOCK_RECORDS * 2 + 5;
+        assertEquals(format(tasks.subList(from, to)), format(storage.readTasks(from, to)));
+        assertEquals(format(tasks.subList(TASK_COUNT - 1, TASK_COUNT)),
+                format(storage.readTasks(TASK_COUNT - 1, TASK_COUNT)));
+        assertNull(storage.readTasks(TASK_COUNT - 1, TASK_COUNT + 1));
+    }
+
+    @Test
+    public void append_afterSave_keepsEveryTaskInOrder() throws NovaException {
+        ArrayList<Task> tasks = createTasks(TASK_COUNT, "saved");
+        storage.save(tasks);
+        for (Task task : createTasks(CompressedStorage.BLOCK_RECORDS + 3, "appended")) {
+            storage.append(task);
+            tasks.add(task);
+        }
+        assertEquals(format(tasks), format(storage.load()));
+        assertEquals(format(tasks.subList(TASK_COUNT - 2, TASK_COUNT + 2)),
+                format(storage.readTasks(TASK_COUNT - 2, TASK_COUNT + 2)));
+    }
+
+    @Test
+    public void append_toMissingFile_createsReadableFile() throws NovaException {
+        Task task = new Todo("first");
+        storage.append(task);
+        assertEquals(List.of(storage.formatTask(task)), format(storage.load()));
+    }
+
+    @Test
+    public void append_duringBackgroundLoad_placesNewTasksAfterLoadedOnes() throws NovaException {
+        ArrayList<Task> saved = createTasks(CompressedStorage.BLOCK_RECORDS * 40, "saved");
+        storage.save(saved);
+        TaskList tasks = new TaskList();
+        storage.loadInBackground(tasks, new Ui());
+        List<Task> appended = createTasks(10, "appended");
+        for (Task task : appended) {
+            tasks.addTask(task);
+            storage.append(task);
+        }
+
+        List<String> expected = format(saved);
+        expected.addAll(format(appended));
+        assertEquals(expected, format(tasks.getTasks()));
+        assertEquals(expected, format(storage.load()));
+    }
+
+    @Test
+    public void load_crashDuringAppend_usesLastCompleteFooter() throws IOException, NovaException {
+        ArrayList<Task> tasks = createTasks(TASK_COUNT, "saved");
+        storage.save(tasks);
+        storage.append(new Todo("appended"));
+        long length = Files.size(path);
+        // An append that stopped before its trailer leaves bytes with no footer after them.
+        Files.write(path, new byte[100_000], StandardOpenOption.APPEND);
+
+        tasks.add(new Todo("appended"));
+        assertEquals(format(tasks), format(storage.load()));
+        Task next = new Todo("after crash");
+        storage.append(next);
+        tasks.add(next);
+        assertEquals(format(tasks), format(storage.load()));
+        // The leftover bytes outweigh the live blocks, so the append compacted the file.
+        assertTrue(Files.size(path) < length);
+    }
+
+    @Test
+    public void load_truncatedFile_throwsException() throws IOException, NovaException {
+        storage.save(createTasks(TASK_COUNT, "saved"));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() / 2);
+        }
+        assertThrows(NovaException.class, () -> storage.load());
+        assertThrows(NovaException.class, () -> storage.readTasks(0, 1));
+    }
+
+    @Test
+    public void load_wrongMagic_throwsException() throws IOException, NovaException {
+        storage.save(createTasks(TASK_COUNT, "saved"));
+        overwrite(0, "T | ".getBytes());
+        assertThrows(NovaException.class, () -> storage.load());
+    }
+
+    @Test
+    public void load_corruptBlock_throwsException() throws IOException, NovaException {
+        storage.save(createTasks(TASK_COUNT, "saved"));
+        byte[] garbage = new byte[64];
+        Arrays.fill(garbage, (byte) 0xFF);
+        overwrite(4, garbage);
+        assertThrows(NovaException.class, () -> storage.load());
+        assertThrows(NovaException.class, () -> storage.readTasks(0, 1));
+    }
+}
@@ -0,0 +1,75 @@
+package nova;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class OrderStatisticTreeTest {
+
+    @Test
+    public void getAndRank_afterRandomInsertsAndRemoves_matchSortedList() {
+        Random random = new Random(42);
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        List<Integer> expected = new ArrayList<>();
+        for (int step = 0; step < 2000; step++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                int value = random.nextInt(100_000);
+                if (Collections.binarySearch(expected, value) < 0) {
+                    tree.insert(value);
+                    expected.add(-Collections.binarySearch(expected, value) - 1, value);
+                }
+            } else {
+                Integer value = expected.remove(random.nextInt(expected.size()));
+                tree.remove(value);
+            }
+            if (step % 100 == 0) {
+                assertMatches(expected, tree);
+            }
+        }
+        assertMatches(expected, tree);
+    }
+
+    @Test
+    public void rank_missingValue_returnsInsertionPosition() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        for (int value = 0; value < 10; value++) {
+            tree.insert(value * 10);
+        }
+        assertEquals(0, tree.rank(-5));
+        assertEquals(3, tree.rank(25));
+        assertEquals(10, tree.rank(1000));
+    }
+
+    @Test
+    public void remove_missingValue_leavesTreeUnchanged() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        tree.insert(1);
+        tree.insert(3);
+        tree.remove(2);
+        assertEquals(2, tree.size());
+        assertEquals(3, (int) tree.get(1));
+    }
+
+    @Test
+    public void get_outOfRange_throwsException() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        tree.insert(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.get(-1));
+    }
+
+    private static void assertMatches(List<Integer> expected, OrderStatisticTree<Integer> tree) {
+        assertEquals(expected.size(), tree.size());
+        for (int position = 0; position < expected.size(); position++) {
+            assertEquals(expected.get(position), tree.get(position));
+            assertEquals(position, tree.rank(expected.get(position)));
+        }
+    }
+}
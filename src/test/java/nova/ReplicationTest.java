@@ -0,0 +1,169 @@
+package nova;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import nova.task.Task;
+import nova.task.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ReplicationTest {
+    @TempDir
+    Path directory;
+
+    private Path path;
+    private Path positionPath;
+
+    /**
+     * Plays the primary for one connection: sends the given lines, closes the stream and
+     * returns the handshake the follower opened with.
+     */
+    private static String serve(ReplicationFollower follower, String... lines) throws IOException, NovaException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        try (ServerSocket server = new ServerSocket(0, 1, loopback);
+                Socket socket = new Socket(loopback, server.getLocalPort());
+                Socket primary = server.accept()) {
+            OutputStream out = primary.getOutputStream();
+            for (String line : lines) {
+                out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            primary.shutdownOutput();
+            follower.follow(socket);
+            return reader(primary).readLine();
+        }
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        socket.setSoTimeout(5000);
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private ReplicationFollower restart() throws NovaException {
+        ReplicationFollower follower = new ReplicationFollower(path.toString(), 0);
+        follower.restore();
+        return follower;
+    }
+
+    private String position() throws IOException {
+        String[] position = Files.readString(positionPath).split(" ");
+        return position[0] + " " + position[1];
+    }
+
+    @BeforeEach
+    public void setUp() {
+        path = directory.resolve("follower.txt");
+        positionPath = directory.resolve("follower.txt.seq");
+    }
+
+    @Test
+    public void follow_snapshotThenDeltas_appliesDeltasInOrder() throws Exception {
+        ReplicationFollower follower = restart();
+        String hello = serve(follower, "SNAPSHOT 7 3 2", "T | 0 | first", "T | 0 | second",
+                "4 A T | 0 | third", "5 M 0 1", "6 R 1", "6 R 0", "7 U 1 T | 1 | replaced");
+
+        assertEquals("SYNC 0 0", hello);
+        assertEquals(List.of("T | 1 | first", "T | 1 | replaced"), Files.readAllLines(path));
+        assertEquals("7 7", position());
+        assertEquals("SYNC 7 7", serve(restart()));
+    }
+
+    @Test
+    public void follow_missedDelta_throwsAndKeepsLastAppliedPosition() throws Exception {
+        ReplicationFollower follower = restart();
+        assertThrows(NovaException.class, () -> serve(follower, "SNAPSHOT 1 5 1", "T | 0 | first",
+                "6 A T | 0 | second", "8 A T | 0 | skipped"));
+
+        assertEquals(List.of("T | 0 | first", "T | 0 | second"), Files.readAllLines(path));
+        assertEquals("1 6", position());
+        assertEquals("SYNC 1 6", serve(restart()));
+    }
+
+    @Test
+    public void follow_malformedSnapshotHeader_throwsNovaException() throws Exception {
+        ReplicationFollower follower = restart();
+        assertThrows(NovaException.class, () -> serve(follower, "SNAPSHOT 1 oops 1", "T | 0 | first"));
+        assertThrows(NovaException.class, () -> serve(follower, "SNAPSHOT 1 2"));
+        assertThrows(NovaException.class, () -> serve(follower, "SNAPSHOT 1 2 -1"));
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    public void restore_afterCrash_discardsWritesThatWereNotRecorded() throws Exception {
+        serve(restart(), "SNAPSHOT 1 1 1", "T | 0 | first", "2 A T | 0 | second");
+        // An append whose position was never saved, and a rewrite that was never moved into place.
+        Files.writeString(path, "T | 0 | unrecorded\n", StandardOpenOption.APPEND);
+        Files.writeString(directory.resolve("tmp-follower.txt"), "T | 0 | uncommitted\n");
+        Files.writeString(directory.resolve("follower.txt.seq.tmp"), "1 3 0");
+
+        assertEquals("SYNC 1 2", serve(restart()));
+        assertEquals(List.of("T | 0 | first", "T | 0 | second"), Files.readAllLines(path));
+        assertFalse(Files.exists(directory.resolve("tmp-follower.txt")));
+        assertFalse(Files.exists(directory.resolve("follower.txt.seq.tmp")));
+    }
+
+    @Test
+    public void restore_afterCrashBeforePositionMove_keepsCommittedRewrite() throws Exception {
+        serve(restart(), "SNAPSHOT 1 1 1", "T | 0 | first", "2 M 0 1");
+        // The rewritten data file was moved into place, but its position was not.
+        Files.move(positionPath, directory.resolve("follower.txt.seq.tmp"));
+        Files.writeString(positionPath, "1 1 0");
+
+        assertEquals("SYNC 1 2", serve(restart()));
+        assertEquals(List.of("T | 1 | first"), Files.readAllLines(path));
+    }
+
+    @Test
+    public void primary_reconnectWithinRetainedDeltas_replaysOnlyMissedDeltas() throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = probe.getLocalPort();
+        }
+        ArrayList<Task> initial = new ArrayList<>();
+        initial.add(new Todo("first"));
+        TaskList tasks = new TaskList(initial);
+        new ReplicationPrimary(tasks, Storage.open(path.toString()), port).start();
+
+        String epoch;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.getOutputStream().write("SYNC 0 0\n".getBytes(StandardCharsets.UTF_8));
+            BufferedReader in = reader(socket);
+            String[] header = in.readLine().split(" ");
+            assertEquals("SNAPSHOT", header[0]);
+            assertEquals("0 1", header[2] + " " + header[3]);
+            assertEquals("T | 0 | first", in.readLine());
+            epoch = header[1];
+
+            tasks.addTask(new Todo("second"));
+            tasks.markTask(0, true);
+            assertEquals("1 A T | 0 | second", in.readLine());
+            assertEquals("2 M 0 1", in.readLine());
+        }
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.getOutputStream().write(("SYNC " + epoch + " 1\n").getBytes(StandardCharsets.UTF_8));
+            BufferedReader in = reader(socket);
+            assertEquals("2 M 0 1", in.readLine());
+            tasks.removeTask(1);
+            assertEquals("3 R 1", in.readLine());
+        }
+        assertTrue(tasks.getTask(0).isDone);
+    }
+}
@@ -0,0 +1,216 @@
+package nova;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import nova.task.Task;
+import nova.task.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SharedFileTest {
+    private static final int TASK_COUNT = 200;
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+    private Process first;
+    private Process second;
+
+    /**
+     * One Nova process sharing the data file, with the list changes it has seen.
+     */
+    private class Process implements TaskListListener {
+        final Storage storage = Storage.open(path.toString());
+        final TaskList tasks = new TaskList();
+        final List<String> events = new ArrayList<>();
+        final SharedFile sharedFile;
+
+        Process() throws NovaException {
+            storage.loadInBackground(tasks, new Ui());
+            tasks.getTasks();
+            sharedFile = storage.enableSharing(tasks);
+            tasks.addListener(this);
+        }
+
+        void add(String description) throws NovaException {
+            try (SharedFile.Lock lock = storage.lockFile()) {
+                Task task = new Todo(description);
+                tasks.addTask(task);
+                storage.append(task);
+            }
+        }
+
+        List<String> descriptions() {
+            return SharedFileTest.descriptions(tasks.getTasks());
+        }
+
+        @Override
+        public void taskAdded(Task task) {
+            events.add("A " + task.description);
+        }
+
+        @Override
+        public void taskMarked(int index, Task task) {
+            events.add("M " + index);
+        }
+
+        @Override
+        public void taskUpdated(int index, Task task) {
+            events.add("U " + index);
+        }
+
+        @Override
+        public void taskRemoved(int index, Task task) {
+            events.add("R " + index);
+        }
+    }
+
+    private static ArrayList<Task> createTasks(List<String> descriptions) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (String description : descriptions) {
+            Task task = new Todo(description.replace("*", ""));
+            task.markAsDone(description.endsWith("*"));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static List<String> descriptions(List<Task> tasks) {
+        List<String> descriptions = new ArrayList<>();
+        for (Task task : tasks) {
+            descriptions.add(task.description + (task.isDone ? "*" : ""));
+        }
+        return descriptions;
+    }
+
+    private static List<String> numbered(int count) {
+        List<String> descriptions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            descriptions.add("task " + i);
+        }
+        return descriptions;
+    }
+
+    private void appendRaw(String text) throws IOException {
+        Files.writeString(path, text, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    @BeforeEach
+    public void setUp() throws NovaException {
+        path = directory.resolve("nova.txt");
+        new Storage(path.toString()).save(createTasks(numbered(TASK_COUNT)));
+        first = new Process();
+        second = new Process();
+    }
+
+    @Test
+    public void refresh_afterOtherProcessAppends_addsOnlyNewTasks() throws NovaException {
+        second.add("from second");
+        second.add("again");
+
+        assertTrue(first.sharedFile.refresh());
+        assertEquals(List.of("A from second", "A again"), first.events);
+        assertEquals(second.descriptions(), first.descriptions());
+        assertFalse(first.sharedFile.refresh());
+    }
+
+    @Test
+    public void refresh_partialRecord_waitsForItsLineBreak() throws IOException, NovaException {
+        appendRaw("T | 0 | half");
+        assertFalse(first.sharedFile.refresh());
+        appendRaw("way\r\nT | 1 | done\r\n");
+
+        assertTrue(first.sharedFile.refresh());
+        assertEquals(List.of("A halfway", "A done"), first.events);
+        assertEquals("done*", first.descriptions().get(TASK_COUNT + 1));
+    }
+
+    @Test
+    public void refresh_appendLargerThanReadChunk_addsEveryRecordInOrder() throws IOException, NovaException {
+        StringBuilder appended = new StringBuilder();
+        List<String> expected = numbered(TASK_COUNT);
+        for (int i = 0; i < 5000; i++) {
+            appended.append("T | 0 | appended record number ").append(i).append('\n');
+            expected.add("appended record number " + i);
+        }
+        appendRaw(appended.toString());
+
+        assertTrue(first.sharedFile.refresh());
+        assertEquals(expected, first.descriptions());
+    }
+
+    @Test
+    public void refresh_afterRewrite_changesOnlyDifferingRows() throws NovaException {
+        List<String> rewritten = numbered(TASK_COUNT);
+        rewritten.remove(3);
+        rewritten.add("new");
+        second.storage.save(createTasks(rewritten));
+        first.sharedFile.refresh();
+        assertEquals(List.of("R 3", "A new"), first.events);
+        assertEquals(rewritten, first.descriptions());
+
+        first.events.clear();
+        rewritten.set(100, rewritten.get(100) + "*");
+        rewritten.set(150, "renamed");
+        second.storage.save(createTasks(rewritten));
+        first.sharedFile.refresh();
+        assertEquals(List.of("M 100", "U 150"), first.events);
+        assertEquals(rewritten, first.descriptions());
+    }
+
+    @Test
+    public void refresh_afterMidListInsert_matchesStoredTasks() throws NovaException {
+        List<String> rewritten = numbered(TASK_COUNT);
+        rewritten.add(5, "inserted");
+        rewritten.remove(50);
+        second.storage.save(createTasks(rewritten));
+
+        assertTrue(first.sharedFile.refresh());
+        assertEquals(rewritten, first.descriptions());
+    }
+
+    @Test
+    public void lock_mergesOtherProcessChangesBeforeWriting() throws NovaException {
+        second.add("from second");
+        first.add("from first");
+
+        List<String> expected = numbered(TASK_COUNT);
+        expected.add("from second");
+        expected.add("from first");
+        assertEquals(expected, first.descriptions());
+        second.sharedFile.refresh();
+        assertEquals(expected, second.descriptions());
+        assertEquals(expected, descriptions(new Storage(path.toString()).load()));
+    }
+
+    @Test
+    public void refresh_mergedChanges_areNotRecordedInHistoryAgain() throws IOException, NovaException {
+        TaskHistory history = first.storage.enableHistory(first.tasks);
+        first.tasks.addListener(history);
+        first.add("from first");
+        history.flush();
+        Path historyPath = Path.of(path + ".history");
+        long recorded = Files.size(historyPath);
+
+        second.add("from second");
+        List<String> rewritten = numbered(TASK_COUNT);
+        rewritten.set(0, "renamed");
+        second.storage.save(createTasks(rewritten));
+        first.sharedFile.refresh();
+        history.flush();
+        assertEquals(rewritten, first.descriptions());
+        assertEquals(recorded, Files.size(historyPath));
+    }
+}
@@ -0,0 +1,164 @@
+package nova;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import nova.task.Task;
+import nova.task.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TaskGraphTest {
+    @TempDir
+    Path directory;
+
+    private String filePath;
+    private TaskList tasks;
+    private TaskGraph graph;
+
+    private static TaskList createTasks(int count) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        return new TaskList(tasks);
+    }
+
+    private static TaskGraph createGraph(String filePath, TaskList tasks) throws NovaException {
+        TaskGraph graph = new TaskGraph(filePath, tasks);
+        tasks.addListener(graph);
+        graph.ensureLoaded();
+        return graph;
+    }
+
+    private Task task(int index) {
+        return tasks.getTask(index);
+    }
+
+    @BeforeEach
+    public void setUp() throws NovaException {
+        filePath = directory.resolve("nova.txt").toString();
+        tasks = createTasks(5);
+        graph = createGraph(filePath, tasks);
+    }
+
+    @Test
+    public void addDependency_closingCycle_throwsAndKeepsGraph() throws NovaException {
+        graph.addDependency(task(1), task(0));
+        graph.addDependency(task(2), task(1));
+        assertThrows(NovaException.class, () -> graph.addDependency(task(0), task(2)));
+        assertThrows(NovaException.class, () -> graph.addDependency(task(0), task(0)));
+        assertTrue(graph.isReady(task(0)));
+        assertFalse(graph.isReady(task(2)));
+    }
+
+    @Test
+    public void addDependency_againstCurrentOrder_reordersWithoutFalseCycle() throws NovaException {
+        // Each edge points backwards in the order the tasks were first seen.
+        for (int i = 4; i > 0; i--) {
+            assertTrue(graph.addDependency(task(i - 1), task(i)));
+        }
+        assertFalse(graph.addDependency(task(0), task(1)));
+        graph.addDependency(task(0), task(4));
+        assertThrows(NovaException.class, () -> graph.addDependency(task(4), task(0)));
+        assertEquals(List.of(task(4)), graph.getReadyTasks());
+    }
+
+    @Test
+    public void readyTasks_afterMarkAndUnmark_followPrerequisites() throws NovaException {
+        graph.addDependency(task(1), task(0));
+        graph.addDependency(task(2), task(0));
+        graph.addDependency(task(2), task(1));
+        assertEquals(3, graph.getReadyTasks().size());
+
+        tasks.markTask(0, true);
+        assertFalse(graph.isReady(task(0)));
+        assertTrue(graph.isReady(task(1)));
+        assertFalse(graph.isReady(task(2)));
+
+        tasks.markTask(1, true);
+        assertTrue(graph.isReady(task(2)));
+        assertEquals(3, graph.getReadyTasks().size());
+
+        tasks.markTask(0, false);
+        assertTrue(graph.isReady(task(0)));
+        assertFalse(graph.isReady(task(2)));
+        assertEquals(3, graph.getReadyTasks().size());
+    }
+
+    @Test
+    public void readyTasks_afterDeleteAndAdd_stayInStep() throws NovaException {
+        graph.addDependency(task(1), task(0));
+        Task blocked = task(1);
+        tasks.removeTask(0);
+        assertTrue(graph.isReady(blocked));
+        assertTrue(graph.getReadyTasks().contains(blocked));
+
+        Task added = new Todo("added");
+        tasks.addTask(added);
+        assertTrue(graph.getReadyTasks().contains(added));
+        tasks.removeTask(tasks.size() - 1);
+        assertFalse(graph.getReadyTasks().contains(added));
+        assertEquals(tasks.size(), graph.getReadyTasks().size());
+    }
+
+    @Test
+    public void replaceTask_movesDependenciesToNewTask() throws NovaException {
+        graph.addDependency(task(2), task(1));
+        Task replacement = new Todo("replacement");
+        replacement.markAsDone(true);
+        tasks.replaceTask(1, replacement);
+        assertTrue(graph.isReady(task(2)));
+        assertFalse(graph.getReadyTasks().contains(replacement));
+        assertThrows(NovaException.class, () -> graph.addDependency(replacement, task(2)));
+
+        graph.save(tasks.getTasks());
+        TaskList reloaded = createTasks(5);
+        TaskGraph loaded = createGraph(filePath, reloaded);
+        assertFalse(loaded.addDependency(reloaded.getTask(2), reloaded.getTask(1)));
+    }
+
+    @Test
+    public void ensureLoaded_malformedFile_failsEveryTimeUntilFixed() throws Exception {
+        graph.addDependency(task(1), task(0));
+        graph.save(tasks.getTasks());
+        Files.writeString(Path.of(filePath + ".deps"), "0 1\n1 oops\n", StandardCharsets.UTF_8);
+
+        TaskList reloaded = createTasks(5);
+        TaskGraph loaded = new TaskGraph(filePath, reloaded);
+        reloaded.addListener(loaded);
+        assertThrows(NovaException.class, loaded::ensureLoaded);
+        assertThrows(NovaException.class, loaded::ensureLoaded);
+
+        Files.writeString(Path.of(filePath + ".deps"), "0 1\n", StandardCharsets.UTF_8);
+        loaded.ensureLoaded();
+        assertFalse(loaded.isReady(reloaded.getTask(1)));
+        assertEquals(4, loaded.getReadyTasks().size());
+    }
+
+    @Test
+    public void save_thenLoad_restoresDependencies() throws NovaException {
+        graph.addDependency(task(3), task(1));
+        graph.addDependency(task(4), task(3));
+        tasks.markTask(1, true);
+        graph.save(tasks.getTasks());
+
+        TaskList reloaded = createTasks(5);
+        reloaded.markTask(1, true);
+        TaskGraph loaded = createGraph(filePath, reloaded);
+        assertTrue(loaded.isReady(reloaded.getTask(3)));
+        assertFalse(loaded.isReady(reloaded.getTask(4)));
+        assertFalse(loaded.addDependency(reloaded.getTask(4), reloaded.getTask(3)));
+        assertThrows(NovaException.class, () -> loaded.addDependency(reloaded.getTask(1), reloaded.getTask(4)));
+        assertEquals(3, loaded.getReadyTasks().size());
+    }
+}
@@ -0,0 +1,128 @@
+package nova;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import nova.task.Task;
+import nova.task.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TaskHistoryTest {
+    private static final String LONG_TEXT = "a description long enough to make each recorded delta about a hundred bytes";
+
+    @TempDir
+    Path directory;
+
+    private String filePath;
+    private Storage storage;
+    private TaskList tasks;
+    private TaskHistory history;
+
+    private List<String> format(List<Task> tasks) {
+        List<String> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(storage.formatTask(task));
+        }
+        return records;
+    }
+
+    private TaskHistory openHistory() {
+        TaskHistory history = new TaskHistory(filePath, storage, tasks);
+        tasks.addListener(history);
+        return history;
+    }
+
+    private long checkpointCount() throws IOException {
+        return Files.readAllLines(Path.of(filePath + ".history.idx")).size();
+    }
+
+    /**
+     * Returns a time strictly after every change recorded so far, and before any later one.
+     */
+    private static long pause() throws InterruptedException {
+        Thread.sleep(5);
+        long time = System.currentTimeMillis();
+        Thread.sleep(5);
+        return time;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        filePath = directory.resolve("nova.txt").toString();
+        storage = new Storage(filePath);
+        tasks = new TaskList();
+        history = openHistory();
+    }
+
+    @Test
+    public void tasksAsOf_pastTimes_replaysCheckpointAndDeltas() throws Exception {
+        long beforeHistory = pause();
+        tasks.addTask(new Todo("first"));
+        history.flush();
+        long afterFirst = pause();
+        tasks.markTask(0, true);
+        tasks.addTask(new Todo("second"));
+        history.flush();
+        long afterSecond = pause();
+        tasks.removeTask(0);
+        tasks.replaceTask(0, new Todo("replaced"));
+        history.flush();
+        long afterThird = pause();
+
+        assertEquals(List.of("T | 0 | first"), format(history.tasksAsOf(afterFirst)));
+        assertEquals(List.of("T | 1 | first", "T | 0 | second"), format(history.tasksAsOf(afterSecond)));
+        assertEquals(List.of("T | 0 | replaced"), format(history.tasksAsOf(afterThird)));
+        assertThrows(NovaException.class, () -> history.tasksAsOf(beforeHistory));
+    }
+
+    @Test
+    public void flush_afterBulkAdd_writesOneCheckpointInsteadOfDeltas() throws Exception {
+        tasks.addTask(new Todo("first"));
+        history.flush();
+        ArrayList<Task> added = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            added.add(new Todo(LONG_TEXT + " " + i));
+        }
+        tasks.addTasks(added);
+        history.flush();
+
+        assertEquals(2, checkpointCount());
+        // The first checkpoint line, the first task, the second checkpoint line and every task again.
+        assertEquals(2 + 1 + tasks.size(), Files.readAllLines(Path.of(filePath + ".history")).size());
+        assertEquals(format(tasks.getTasks()), format(history.tasksAsOf(pause())));
+    }
+
+    @Test
+    public void reopen_keepsCountingTowardsNextCheckpoint() throws Exception {
+        tasks.addTask(new Todo("first"));
+        history.flush();
+        Path historyPath = Path.of(filePath + ".history");
+        long checkpointEnd = Files.size(historyPath);
+        while (Files.size(historyPath) - checkpointEnd < 60 * 1024) {
+            tasks.addTask(new Todo(LONG_TEXT));
+            history.flush();
+        }
+        assertEquals(1, checkpointCount());
+
+        tasks = new TaskList(new ArrayList<>(tasks.getTasks()));
+        history = openHistory();
+        int added = 0;
+        while (checkpointCount() == 1) {
+            tasks.addTask(new Todo(LONG_TEXT));
+            history.flush();
+            added++;
+        }
+        // About 4 KiB of deltas were left before the threshold, not the whole 64 KiB.
+        assertTrue(added < 60, "checkpoint after " + added + " more deltas");
+        assertEquals(format(tasks.getTasks()), format(history.tasksAsOf(pause())));
+    }
+}
@@ -0,0 +1,124 @@
+package nova;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import nova.task.Deadline;
+import nova.task.Event;
+import nova.task.Recurring;
+import nova.task.Task;
+import nova.task.Todo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TaskListTest {
+    @TempDir
+    Path directory;
+
+    private static TaskList createTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("water plants"));
+        tasks.add(new Deadline("submit report", "by: 2024-12-03"));
+        tasks.add(new Event("team meeting", "from: 2024-12-01", "to: 2024-12-02"));
+        tasks.add(new Todo("Buy milk"));
+        tasks.add(new Recurring("standup", LocalDate.of(2024, 11, 30), 1));
+        tasks.add(new Deadline("pay rent", "by: 2024-12-01"));
+        tasks.get(3).markAsDone(true);
+        return new TaskList(tasks);
+    }
+
+    @Test
+    public void toIndex_underEverySortOrder_pointsAtTaskShownAtThatPosition() {
+        for (SortOrder order : SortOrder.values()) {
+            TaskList tasks = createTasks();
+            tasks.setSortOrder(order);
+            List<Task> view = tasks.getViewTasks(0, tasks.size());
+            for (int position = 0; position < view.size(); position++) {
+                assertSame(view.get(position), tasks.getTask(tasks.toIndex(position)), order + " at " + position);
+            }
+        }
+    }
+
+    @Test
+    public void getViewTasks_dueOrder_sortsByDateWithTodosLast() {
+        TaskList tasks = createTasks();
+        tasks.setSortOrder(SortOrder.DUE);
+        List<Task> view = tasks.getViewTasks(0, tasks.size());
+        assertEquals("standup", view.get(0).description);
+        assertEquals("team meeting", view.get(1).description);
+        assertEquals("pay rent", view.get(2).description);
+        assertEquals("submit report", view.get(3).description);
+        assertTrue(view.get(4) instanceof Todo);
+        assertTrue(view.get(5) instanceof Todo);
+    }
+
+    @Test
+    public void markTask_doneOrder_movesTaskAndKeepsIndicesConsistent() {
+        TaskList tasks = createTasks();
+        tasks.setSortOrder(SortOrder.DONE);
+        int index = tasks.toIndex(0);
+        Task task = tasks.getTask(index);
+        assertFalse(task.isDone);
+        tasks.markTask(index, true);
+        List<Task> view = tasks.getViewTasks(0, tasks.size());
+        assertTrue(view.indexOf(task) >= view.size() - 2);
+        for (int position = 0; position < view.size(); position++) {
+            assertSame(view.get(position), tasks.getTask(tasks.toIndex(position)));
+        }
+    }
+
+    @Test
+    public void removeTask_underEverySortOrder_removesTaskShownAtPosition() {
+        for (SortOrder order : SortOrder.values()) {
+            TaskList tasks = createTasks();
+            tasks.setSortOrder(order);
+            while (tasks.size() > 0) {
+                int position = tasks.size() / 2;
+                Task shown = tasks.getViewTasks(position, position + 1).get(0);
+                tasks.removeTask(tasks.toIndex(position));
+                assertFalse(tasks.getTasks().contains(shown), order + " removed the wrong task");
+                List<Task> view = tasks.getViewTasks(0, tasks.size());
+                for (int i = 0; i < view.size(); i++) {
+                    assertSame(view.get(i), tasks.getTask(tasks.toIndex(i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void markAndDeleteCommands_sortedByDescription_actOnDisplayedTask() throws NovaException {
+        TaskList tasks = createTasks();
+        Storage storage = new Storage(directory.resolve("tasks.txt").toString());
+        tasks.addListener(storage.enableDependencies(tasks));
+        Parser parser = new Parser();
+        Ui ui = new Ui();
+        parser.parse("sort by:description").execute(tasks, ui, storage);
+
+        Task first = tasks.getViewTasks(0, 1).get(0);
+        assertEquals("Buy milk", first.description);
+        parser.parse("unmark 1").execute(tasks, ui, storage);
+        assertFalse(first.isDone);
+
+        Task third = tasks.getViewTasks(2, 3).get(0);
+        parser.parse("delete 3").execute(tasks, ui, storage);
+        assertFalse(tasks.getTasks().contains(third));
+        assertEquals(5, tasks.size());
+    }
+
+    @Test
+    public void addTask_whileSorted_insertsIntoView() {
+        TaskList tasks = createTasks();
+        tasks.setSortOrder(SortOrder.DESCRIPTION);
+        Task added = new Todo("apply for leave");
+        tasks.addTask(added);
+        assertSame(added, tasks.getViewTasks(0, 1).get(0));
+        assertEquals(tasks.size() - 1, tasks.toIndex(0));
+    }
+}
@@ -0,0 +1,158 @@
+package nova;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import nova.task.Deadline;
+import nova.task.Event;
+import nova.task.Recurring;
+import nova.task.Task;
+import nova.task.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TaskTransferTest {
+    @TempDir
+    Path directory;
+
+    private Storage storage;
+    private TaskTransfer transfer;
+    private TaskList tasks;
+
+    private static ArrayList<Task> createTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("say \"hi\", then leave"));
+        tasks.add(new Deadline("pay rent, again", "by: 2024-12-01"));
+        tasks.add(new Event("team meeting", "from: 2024-12-01", "to: 2024-12-02"));
+        Recurring standup = new Recurring("standup", LocalDate.of(2024, 11, 30), 2);
+        standup.markOccurrence(LocalDate.of(2024, 12, 2), true);
+        standup.markOccurrence(LocalDate.of(2024, 12, 6), true);
+        tasks.add(standup);
+        tasks.add(new Todo("back\\slash"));
+        tasks.get(1).markAsDone(true);
+        return tasks;
+    }
+
+    private List<String> format(List<Task> tasks) {
+        List<String> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(storage.formatTask(task));
+        }
+        return records;
+    }
+
+    private TaskTransfer.Summary importLines(String fileName, String... lines) throws IOException, NovaException {
+        Path file = directory.resolve(fileName);
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return transfer.importTasks(file.toString(), tasks);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        storage = new Storage(directory.resolve("nova.txt").toString());
+        transfer = new TaskTransfer(storage);
+        tasks = new TaskList();
+    }
+
+    @Test
+    public void exportThenImport_csv_keepsEveryField() throws NovaException {
+        ArrayList<Task> exported = createTasks();
+        String file = directory.resolve("tasks.csv").toString();
+        assertEquals(exported.size(), transfer.exportTasks(exported, file));
+
+        TaskTransfer.Summary summary = transfer.importTasks(file, tasks);
+        assertEquals(exported.size(), summary.imported);
+        assertEquals(0, summary.skipped);
+        assertEquals(format(exported), format(tasks.getTasks()));
+        assertEquals(format(exported), format(storage.load()));
+    }
+
+    @Test
+    public void exportThenImport_jsonLines_keepsEveryField() throws NovaException {
+        ArrayList<Task> exported = createTasks();
+        String file = directory.resolve("tasks.jsonl").toString();
+        transfer.exportTasks(exported, file);
+
+        TaskTransfer.Summary summary = transfer.importTasks(file, tasks);
+        assertEquals(exported.size(), summary.imported);
+        assertEquals(0, summary.skipped);
+        assertEquals(format(exported), format(tasks.getTasks()));
+        assertEquals(format(exported), format(storage.load()));
+    }
+
+    @Test
+    public void export_csv_quotesOnlyFieldsThatNeedIt() throws IOException, NovaException {
+        Path file = directory.resolve("tasks.csv");
+        transfer.exportTasks(createTasks().subList(0, 2), file.toString());
+        assertEquals(List.of("type,done,description,by,from,to,every,completed",
+                "T,0,\"say \"\"hi\"\", then leave\",,,,,",
+                "D,1,\"pay rent, again\",2024-12-01,,,,"), Files.readAllLines(file));
+    }
+
+    @Test
+    public void import_csvWithInvalidRecords_skipsThemAndKeepsTheRest() throws IOException, NovaException {
+        TaskTransfer.Summary summary = importLines("tasks.csv",
+                "type,done,description,by,from,to,every,completed",
+                "T,0,\"first line",
+                "second line\"",
+                "",
+                "X,0,unknown type",
+                "D,0,no date",
+                "T,maybe,bad flag",
+                "T,0,too,many,columns,in,this,record,here",
+                "T,0,has | pipe",
+                "t,true,kept");
+        assertEquals(1, summary.imported);
+        assertEquals(6, summary.skipped);
+        assertEquals(List.of("T | 1 | kept"), format(tasks.getTasks()));
+    }
+
+    @Test
+    public void import_csvWithUnbalancedQuote_givesUpAfterRecordLineLimit() throws IOException, NovaException {
+        List<String> lines = new ArrayList<>();
+        lines.add("type,done,description");
+        lines.add("T,0,\"never closed");
+        for (int i = 0; i < 100; i++) {
+            lines.add("T,0,task " + i);
+        }
+        TaskTransfer.Summary summary = importLines("tasks.csv", lines.toArray(new String[0]));
+        // The stray quote swallows the rest of a 64-line record, then reading resumes.
+        assertEquals(1, summary.skipped);
+        assertEquals(37, summary.imported);
+        assertEquals("T | 0 | task 63", storage.formatTask(tasks.getTask(0)));
+    }
+
+    @Test
+    public void import_jsonLines_decodesEscapesAndSkipsInvalidRecords() throws IOException, NovaException {
+        TaskTransfer.Summary summary = importLines("tasks.jsonl",
+                "{\"type\":\"T\",\"done\":true,\"description\":\"say \\\"hi\\\" \\u0041\"}",
+                "  { \"type\" : \"R\", \"done\" : null, \"description\" : \"gym\", \"from\" : \"2024-12-01\","
+                        + " \"every\" : 7, \"completed\" : \"2024-12-08\" }  ",
+                "{\"type\":\"T\",\"description\":\"line\\nbreak\"}",
+                "{\"type\":\"T\",\"description\":\"unterminated}",
+                "{\"type\":\"R\",\"description\":\"never\",\"from\":\"2024-12-01\",\"every\":0}",
+                "{\"type\":\"D\",\"description\":\"bad date\",\"by\":null}",
+                "[]",
+                "{}");
+        assertEquals(2, summary.imported);
+        assertEquals(6, summary.skipped);
+        assertEquals(List.of("T | 1 | say \"hi\" A", "R | 0 | gym | 2024-12-01 | 7 | 2024-12-08"),
+                format(tasks.getTasks()));
+    }
+
+    @Test
+    public void importAndExport_unsupportedExtension_throwsException() {
+        String file = directory.resolve("tasks.txt").toString();
+        assertThrows(NovaException.class, () -> transfer.exportTasks(createTasks(), file));
+        assertThrows(NovaException.class, () -> transfer.importTasks(file, tasks));
+    }
+}
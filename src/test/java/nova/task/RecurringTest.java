@@ -0,0 +1,115 @@
+package nova.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import nova.NovaException;
+import nova.Storage;
+import nova.TaskList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RecurringTest {
+    private static final LocalDate START = LocalDate.of(2024, 2, 26);
+
+    @TempDir
+    Path directory;
+
+    private static LocalDate day(int offset) {
+        return START.plusDays(offset);
+    }
+
+    private static List<LocalDate> dates(List<Recurring.Occurrence> occurrences) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (Recurring.Occurrence occurrence : occurrences) {
+            dates.add(occurrence.date);
+        }
+        return dates;
+    }
+
+    @Test
+    public void occursOn_onlyOnIntervalDaysFromStart() {
+        Recurring task = new Recurring("water plants", START, 3);
+        assertFalse(task.occursOn(day(-3)));
+        assertTrue(task.occursOn(day(0)));
+        assertFalse(task.occursOn(day(1)));
+        assertFalse(task.occursOn(day(2)));
+        assertTrue(task.occursOn(day(3)));
+        assertTrue(task.occursOn(day(300)));
+    }
+
+    @Test
+    public void occurrencesBetween_generatesOnlyDatesInWindow() {
+        Recurring task = new Recurring("water plants", START, 3);
+        assertEquals(List.of(day(0), day(3)), dates(task.occurrencesBetween(day(-10), day(5))));
+        assertEquals(List.of(day(3), day(6)), dates(task.occurrencesBetween(day(1), day(6))));
+        assertEquals(List.of(day(3)), dates(task.occurrencesBetween(day(3), day(3))));
+        assertEquals(List.of(), dates(task.occurrencesBetween(day(4), day(5))));
+        assertEquals(List.of(), dates(task.occurrencesBetween(day(-10), day(-1))));
+        // The window is found arithmetically, across a leap day and far from the start.
+        Recurring daily = new Recurring("standup", START, 1);
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 1)),
+                dates(daily.occurrencesBetween(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 1))));
+        assertEquals(List.of(day(100_001)), dates(daily.occurrencesBetween(day(100_001), day(100_001))));
+    }
+
+    @Test
+    public void markOccurrence_keepsOnlyMarkedDatesAsDone() {
+        Recurring task = new Recurring("gym", START, 7);
+        assertTrue(task.markOccurrence(day(14), true));
+        assertTrue(task.markOccurrence(day(0), true));
+        assertTrue(task.markOccurrence(day(7), true));
+        assertFalse(task.markOccurrence(day(8), true));
+        assertTrue(task.markOccurrence(day(7), false));
+        assertTrue(task.markOccurrence(day(21), false));
+
+        assertEquals(List.of(day(0), day(14)), task.getDoneDates());
+        List<Recurring.Occurrence> occurrences = task.occurrencesBetween(day(0), day(21));
+        assertTrue(occurrences.get(0).isDone);
+        assertFalse(occurrences.get(1).isDone);
+        assertTrue(occurrences.get(2).isDone);
+        assertFalse(occurrences.get(3).isDone);
+        assertEquals("[R][X] gym (on: 2024-03-11)", occurrences.get(2).toString());
+        assertFalse(task.isDone);
+    }
+
+    @Test
+    public void saveThenLoad_keepsRuleAndDoneDates() throws NovaException {
+        Storage storage = new Storage(directory.resolve("nova.txt").toString());
+        Recurring task = new Recurring("gym", START, 7);
+        task.markOccurrence(day(7), true);
+        task.markOccurrence(day(21), true);
+        Recurring none = new Recurring("standup", START, 1);
+        ArrayList<Task> saved = new ArrayList<>(List.of(task, none));
+        storage.save(saved);
+
+        ArrayList<Task> loaded = storage.load();
+        Recurring loadedTask = (Recurring) loaded.get(0);
+        assertEquals(START, loadedTask.start);
+        assertEquals(7, loadedTask.intervalDays);
+        assertEquals(List.of(day(7), day(21)), loadedTask.getDoneDates());
+        assertEquals("[R][ ] gym (every week from 2024-02-26)", loadedTask.toString());
+        assertEquals(List.of(), ((Recurring) loaded.get(1)).getDoneDates());
+        assertEquals("[R][ ] standup (every day from 2024-02-26)", loaded.get(1).toString());
+    }
+
+    @Test
+    public void taskListMarkOccurrence_rejectsOtherTasksAndDates() throws NovaException {
+        ArrayList<Task> list = new ArrayList<>();
+        list.add(new Todo("read"));
+        list.add(new Recurring("gym", START, 7));
+        TaskList tasks = new TaskList(list);
+
+        assertThrows(NovaException.class, () -> tasks.markOccurrence(0, START, true));
+        assertThrows(NovaException.class, () -> tasks.markOccurrence(1, day(1), true));
+        tasks.markOccurrence(1, day(7), true);
+        assertEquals(List.of(day(7)), ((Recurring) tasks.getTask(1)).getDoneDates());
+    }
+}